@@ -0,0 +1,70 @@
+package ru.VladHendel.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.VladHendel.blockCoding.BlockCodec;
+import ru.VladHendel.blockCoding.CodecType;
+
+import java.util.concurrent.TimeUnit;
+
+//Бенчмарк кодирования и декодирования одного блока кодеками ANS в сравнении с Хаффманом и кодером диапазона.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class AnsBenchmark {
+    // Размер блока: от 1 КБ до 64 МБ
+    @Param({"1024", "1048576", "67108864"})
+    public int size;
+
+    // Профиль энтропии входных данных
+    @Param({"UNIFORM", "TEXT", "SKEWED"})
+    public BenchmarkData.Profile profile;
+
+    // Кодек блока
+    @Param({"RANS", "TANS", "HUFFMAN", "ARITHMETIC"})
+    public CodecType codecType;
+
+    // Входные данные
+    private byte[] data;
+    // Кодек
+    private BlockCodec codec;
+    // Закодированный блок
+    private byte[] encoded;
+    // Буфер для декодированных данных
+    private byte[] decoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = BenchmarkData.generate(profile, size, 42);
+        codec = codecType.codec();
+        encoded = codec.encode(data, 0, data.length);
+        decoded = new byte[size];
+        System.out.printf("%nКоэффициент сжатия (%s, %s, %d байт): %.4f%n", codecType.codecName(), profile, size, (double) encoded.length / size);
+    }
+
+    @Benchmark
+    public byte[] encode(Throughput throughput) {
+        throughput.add(size);
+        return codec.encode(data, 0, data.length);
+    }
+
+    @Benchmark
+    public byte[] decode(Throughput throughput) {
+        throughput.add(size);
+        codec.decode(encoded, 0, encoded.length, decoded, 0);
+        return decoded;
+    }
+}
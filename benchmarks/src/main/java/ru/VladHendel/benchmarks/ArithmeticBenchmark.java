@@ -0,0 +1,67 @@
+package ru.VladHendel.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.VladHendel.arithmeticCoding.ArithmeticCoding;
+
+import java.util.concurrent.TimeUnit;
+
+//Бенчмарк построения модели, кодирования и декодирования ArithmeticCoding.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class ArithmeticBenchmark {
+    // Размер входных данных: от 1 КБ до 1 ГБ
+    @Param({"1024", "1048576", "67108864", "1073741824"})
+    public int size;
+
+    // Профиль энтропии входных данных
+    @Param({"UNIFORM", "TEXT", "SKEWED"})
+    public BenchmarkData.Profile profile;
+
+    // Входные данные
+    private byte[] data;
+    // Модель, построенная по входным данным
+    private ArithmeticCoding coding;
+    // Закодированные данные
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = BenchmarkData.generate(profile, size, 42);
+        coding = new ArithmeticCoding(data);
+        encoded = coding.encode(data);
+        System.out.printf("%nКоэффициент сжатия (arithmetic, %s, %d байт): %.4f%n", profile, size, (double) encoded.length / size);
+    }
+
+    @Benchmark
+    public ArithmeticCoding buildModel(Throughput throughput) {
+        throughput.add(size);
+        return new ArithmeticCoding(data);
+    }
+
+    @Benchmark
+    public byte[] encode(Throughput throughput) {
+        throughput.add(size);
+        return coding.encode(data);
+    }
+
+    @Benchmark
+    public byte[] decode(Throughput throughput) {
+        throughput.add(size);
+        return coding.decodeBytes(encoded);
+    }
+}
@@ -0,0 +1,61 @@
+package ru.VladHendel.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+//Класс генерации входных данных для бенчмарков с разными профилями энтропии.
+public final class BenchmarkData {
+    // Слова для текстового профиля: русский и английский текст
+    private static final String[] WORDS = (
+            "Он подошел к Анне Павловне поцеловал ее руку подставив ей свою надушенную и сияющую лысину "
+                    + "и покойно уселся на диване Успокойте меня сказал он не изменяя голоса и тоном в котором "
+                    + "из-за приличия и участия просвечивало равнодушие и даже насмешка "
+                    + "Well Prince so Genoa and Lucca are now just family estates of the Buonapartes "
+                    + "I warn you if you dont tell me that this means war I will have nothing more to do with you"
+    ).split(" ");
+
+    //Перечисление профилей данных.
+    public enum Profile {
+        // Равномерно распределенные случайные байты (почти несжимаемы)
+        UNIFORM,
+        // Русский и английский текст в UTF-8
+        TEXT,
+        // Сильно перекошенное (геометрическое) распределение байтов
+        SKEWED
+    }
+
+    private BenchmarkData() {
+    }
+
+    //Метод для генерации size байтов профиля profile (одинаковых при одинаковом seed).
+    public static byte[] generate(Profile profile, int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        byte[] data = new byte[size];
+        switch (profile) {
+            case UNIFORM:
+                for (int i = 0; i < size; i++) {
+                    data[i] = (byte) random.nextInt(256);
+                }
+                break;
+            case TEXT:
+                int position = 0;
+                while (position < size) {
+                    byte[] word = (WORDS[random.nextInt(WORDS.length)] + (random.nextInt(12) == 0 ? ", " : " "))
+                            .getBytes(StandardCharsets.UTF_8);
+                    int count = Math.min(word.length, size - position);
+                    System.arraycopy(word, 0, data, position, count);
+                    position += count;
+                }
+                break;
+            case SKEWED:
+                for (int i = 0; i < size; i++) {
+                    // Каждый следующий байт вдвое реже предыдущего
+                    data[i] = (byte) Math.min(255, Long.numberOfTrailingZeros(random.nextLong() | Long.MIN_VALUE));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Неизвестный профиль: " + profile);
+        }
+        return data;
+    }
+}
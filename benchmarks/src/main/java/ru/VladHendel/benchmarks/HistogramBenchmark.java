@@ -0,0 +1,69 @@
+package ru.VladHendel.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.VladHendel.blockCoding.AutoBlockCodec;
+import ru.VladHendel.blockCoding.CodecType;
+import ru.VladHendel.statistics.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+//Бенчмарк подсчета гистограммы байтов (простой цикл и Histogram) и выбора кодека блока по ней.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class HistogramBenchmark {
+    // Размер входных данных: от 1 КБ до 64 МБ
+    @Param({"1024", "1048576", "67108864"})
+    public int size;
+
+    // Профиль энтропии входных данных (на данных с повторами простой цикл упирается в увеличение одного счетчика)
+    @Param({"UNIFORM", "TEXT", "SKEWED"})
+    public BenchmarkData.Profile profile;
+
+    // Входные данные
+    private byte[] data;
+    // Гистограмма входных данных
+    private int[] counts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = BenchmarkData.generate(profile, size, 42);
+        counts = Histogram.count(data, 0, data.length);
+        System.out.printf("%nЭнтропия (%s, %d байт): %.3f бит на байт%n", profile, size, Histogram.entropy(counts));
+    }
+
+    @Benchmark
+    public int[] simpleLoop(Throughput throughput) {
+        throughput.add(size);
+        int[] result = new int[Histogram.ALPHABET_SIZE];
+        for (byte b : data) {
+            result[b & 0xFF]++;
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int[] histogram(Throughput throughput) {
+        throughput.add(size);
+        return Histogram.count(data, 0, data.length);
+    }
+
+    @Benchmark
+    public CodecType chooseCodec() {
+        return AutoBlockCodec.choose(counts);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.VladHendel.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+//Класс счетчика обработанных данных: JMH делит его на время и выводит рядом с результатом как МБ/с.
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class Throughput {
+    // Количество обработанных мегабайтов исходных данных
+    public double megabytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        megabytes = 0;
+    }
+
+    // Учет обработки size байтов исходных данных
+    void add(int size) {
+        megabytes += size / 1_000_000.0;
+    }
+}
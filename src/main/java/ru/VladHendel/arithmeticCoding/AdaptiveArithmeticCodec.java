@@ -0,0 +1,102 @@
+package ru.VladHendel.arithmeticCoding;
+
+import ru.VladHendel.blockCoding.BlockCodec;
+import ru.VladHendel.metrics.Metrics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+//Класс однопроходного арифметического кодека с адаптивной моделью (см. AdaptiveModel).
+//Модель не передается: декодер обновляет ее так же, как кодер.
+//Блок: 1 байт порядка модели, 4 байта количества байтов, код.
+public final class AdaptiveArithmeticCodec implements BlockCodec {
+    // Размер заголовка блока
+    private static final int HEADER_SIZE = 1 + 4;
+    // Имя кодека в метриках
+    static final String CODEC = "adaptive-arithmetic";
+
+    // Порядок контекста для кодирования (при декодировании берется из блока)
+    private final int order;
+
+    //Конструктор кодека с моделью порядка order: 0 - без контекста, 1 и 2 - с подмешиванием контекста.
+    public AdaptiveArithmeticCodec(int order) {
+        if (order < 0 || order > AdaptiveModel.MAX_ORDER) {
+            throw new IllegalArgumentException("Порядок модели должен быть от 0 до " + AdaptiveModel.MAX_ORDER + ": " + order);
+        }
+        this.order = order;
+    }
+
+    @Override
+    public byte[] encode(byte[] data, int offset, int length) {
+        RangeEncoder encoder = new RangeEncoder(length / 2 + 16);
+        encode(ByteBuffer.wrap(data), offset, length, encoder);
+        return encoder.toByteArray();
+    }
+
+    @Override
+    public int encode(ByteBuffer source, ByteBuffer target) {
+        RangeEncoder encoder = new RangeEncoder(target);
+        encode(source, source.position(), source.remaining(), encoder);
+        int size = encoder.size();
+        source.position(source.limit());
+        target.position(target.position() + size);
+        return size;
+    }
+
+    // Кодирование length байтов из data, начиная с offset, вслед за уже записанными байтами кодера
+    private void encode(ByteBuffer data, int offset, int length, RangeEncoder encoder) {
+        long start = System.nanoTime();
+        int sizeBefore = encoder.size();
+        encoder.output(HEADER_SIZE).put((byte) order).putInt(length);
+        AdaptiveModel model = new AdaptiveModel(order);
+        for (int i = offset; i < offset + length; i++) {
+            int symbol = data.get(i) & 0xFF;
+            encoder.encode(model.start(symbol), model.frequency(symbol), model.total());
+            model.update(symbol);
+        }
+        encoder.flush();
+        Metrics.get().encoded(CODEC, length, encoder.size() - sizeBefore, System.nanoTime() - start);
+    }
+
+    @Override
+    public int decode(byte[] block, int offset, int length, byte[] output, int outputOffset) {
+        return decode(ByteBuffer.wrap(block), offset, offset + length, ByteBuffer.wrap(output), outputOffset);
+    }
+
+    @Override
+    public int decode(ByteBuffer block, ByteBuffer target) {
+        int length = decode(block, block.position(), block.limit(), target, target.position());
+        block.position(block.limit());
+        target.position(target.position() + length);
+        return length;
+    }
+
+    // Декодирование блока block[offset, limit) в output, начиная с outputOffset
+    private int decode(ByteBuffer block, int offset, int limit, ByteBuffer output, int outputOffset) {
+        if (limit - offset < HEADER_SIZE) {
+            throw new IllegalStateException("Поврежденные данные: блок короче заголовка");
+        }
+        long start = System.nanoTime();
+        ByteBuffer header = block.duplicate().order(ByteOrder.BIG_ENDIAN);
+        int blockOrder = header.get(offset);
+        int decodedLength = header.getInt(offset + 1);
+        if (blockOrder < 0 || blockOrder > AdaptiveModel.MAX_ORDER || decodedLength < 0 || decodedLength > output.limit() - outputOffset) {
+            throw new IllegalStateException("Поврежденные данные: неверный заголовок блока");
+        }
+        AdaptiveModel model = new AdaptiveModel(blockOrder);
+        RangeDecoder decoder = new RangeDecoder(block, offset + HEADER_SIZE, limit - offset - HEADER_SIZE);
+        for (int i = 0; i < decodedLength; i++) {
+            int symbol = model.symbolFor(decoder.getFreq(model.total()));
+            decoder.decode(model.start(symbol), model.frequency(symbol));
+            model.update(symbol);
+            output.put(outputOffset + i, (byte) symbol);
+        }
+        Metrics.get().decoded(CODEC, limit - offset, decodedLength, System.nanoTime() - start);
+        return decodedLength;
+    }
+
+    @Override
+    public int maxEncodedLength(int length) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) HEADER_SIZE + RangeEncoder.maxCodeSize(length));
+    }
+}
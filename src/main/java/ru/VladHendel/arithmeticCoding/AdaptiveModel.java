@@ -0,0 +1,107 @@
+package ru.VladHendel.arithmeticCoding;
+
+//Класс адаптивной модели байтов для кодера диапазона.
+//Частоты обновляются после каждого байта одинаково в кодере и декодере, поэтому модель не передается.
+//При order > 0 к модели нулевого порядка подмешивается модель контекста из предыдущих order байтов:
+//частота байта = частота нулевого порядка + CONTEXT_WEIGHT * частота в контексте.
+//Моделей контекстов не больше 2^SLOT_BITS (около 2 КиБ каждая, всего до 16 МиБ): при order = 2 контекст хешируется в ячейку,
+//и контексты с одинаковым последним байтом могут делить одну модель, зато память модели не растет с числом контекстов.
+final class AdaptiveModel {
+    // Размер алфавита байтов
+    static final int ALPHABET_SIZE = 256;
+    // Максимальный порядок контекста
+    static final int MAX_ORDER = 2;
+    // Прибавка к частоте встретившегося байта
+    private static final int INCREMENT = 16;
+    // Порог суммы частот модели контекста, после которого частоты уменьшаются вдвое (старая статистика забывается)
+    private static final int CONTEXT_LIMIT = 1 << 13;
+    // Вес модели контекста при смешивании; CONTEXT_LIMIT * (1 + CONTEXT_WEIGHT) не превышает MAX_TOTAL
+    private static final int CONTEXT_WEIGHT = 6;
+    // Разрядность номера ячейки модели контекста: последний байт занимает 8 младших разрядов, остальные байты - хеш в старших
+    private static final int SLOT_BITS = 13;
+
+    // Модель нулевого порядка: все байты изначально равновероятны
+    private final FenwickTree order0 = new FenwickTree(ALPHABET_SIZE, 1);
+    // Модели контекстов по номерам ячеек (создаются при первом появлении ячейки)
+    private final FenwickTree[] contexts;
+    // Порог суммы частот модели нулевого порядка: без контекста ей доступна вся точность кодера
+    private final int limit;
+    // Маска контекста из order последних байтов
+    private final int contextMask;
+    // Текущий контекст (последние байты)
+    private int context;
+    // Модель текущего контекста (null, если контекст еще не встречался или order = 0)
+    private FenwickTree current;
+
+    //Конструктор модели порядка order (0, 1 или 2).
+    AdaptiveModel(int order) {
+        if (order < 0 || order > MAX_ORDER) {
+            throw new IllegalArgumentException("Порядок модели должен быть от 0 до " + MAX_ORDER + ": " + order);
+        }
+        limit = order > 0 ? CONTEXT_LIMIT : ArithmeticCoding.MAX_TOTAL;
+        contextMask = (1 << (8 * order)) - 1;
+        contexts = order > 0 ? new FenwickTree[1 << Math.min(8 * order, SLOT_BITS)] : null;
+    }
+
+    // Номер ячейки модели текущего контекста: последний байт сохраняется точно, а предыдущие байты хешируются
+    // в старшие SLOT_BITS - 8 разрядов (при order = 1 их нет, и номер ячейки совпадает с контекстом)
+    private int slot() {
+        return (context & 0xFF) | ((((context >>> 8) * 0x9E3779B1) >>> (32 - (SLOT_BITS - 8))) << 8);
+    }
+
+    // Сумма частот смешанной модели
+    int total() {
+        return current == null ? order0.total() : order0.total() + CONTEXT_WEIGHT * current.total();
+    }
+
+    // Начало интервала байта
+    int start(int symbol) {
+        return current == null ? order0.prefixSum(symbol) : order0.prefixSum(symbol) + CONTEXT_WEIGHT * current.prefixSum(symbol);
+    }
+
+    // Частота байта
+    int frequency(int symbol) {
+        return current == null ? order0.frequency(symbol) : order0.frequency(symbol) + CONTEXT_WEIGHT * current.frequency(symbol);
+    }
+
+    // Поиск байта по накопленной частоте: спуск по обоим деревьям Фенвика одновременно
+    int symbolFor(int value) {
+        int[] tree0 = order0.tree;
+        int[] treeK = current == null ? null : current.tree;
+        int position = 0;
+        for (int step = Integer.highestOneBit(ALPHABET_SIZE); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= ALPHABET_SIZE) {
+                // Частичная сумма смешанной модели - та же линейная комбинация частичных сумм
+                int sum = treeK == null ? tree0[next] : tree0[next] + CONTEXT_WEIGHT * treeK[next];
+                if (sum <= value) {
+                    position = next;
+                    value -= sum;
+                }
+            }
+        }
+        return position;
+    }
+
+    // Обновление модели после кодирования (декодирования) байта
+    void update(int symbol) {
+        order0.add(symbol, INCREMENT);
+        if (order0.total() > limit) {
+            order0.halve();
+        }
+        if (contexts != null) {
+            if (current == null) {
+                // Контекст встретился впервые: частоты в нем начинаются с нуля
+                current = new FenwickTree(ALPHABET_SIZE, 0);
+                contexts[slot()] = current;
+            }
+            current.add(symbol, INCREMENT);
+            if (current.total() > CONTEXT_LIMIT) {
+                current.halve();
+            }
+            // Переходим к контексту, который заканчивается этим байтом
+            context = ((context << 8) | symbol) & contextMask;
+            current = contexts[slot()];
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package ru.VladHendel.arithmeticCoding;
+
+import ru.VladHendel.blockCoding.BlockCodec;
+import ru.VladHendel.metrics.Metrics;
+import ru.VladHendel.statistics.Histogram;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+//Общая часть кодеков асимметричных систем счисления (ANS): модель, формат блока и запись кода.
+//Блок: 4 байта количества байтов, модель (FrequencyTable с суммой частот ровно 2^scaleBits), 4 байта размера кода, код.
+//Кодер ANS обрабатывает байты с конца, а декодер - с начала, поэтому код пишется от конца отведенного места к началу
+//и после кодирования сдвигается вплотную к заголовку.
+abstract class AnsBlockCodec implements BlockCodec {
+    // Имя кодека в метриках
+    private final String codec;
+    // Разрядность суммы частот модели
+    private final int scaleBits;
+
+    AnsBlockCodec(String codec, int scaleBits) {
+        this.codec = codec;
+        this.scaleBits = scaleBits;
+    }
+
+    //Метод для кодирования length байтов из data, начиная с offset, в out[codeStart, codeEnd) от конца к началу;
+    //возвращает позицию первого байта кода.
+    abstract int encodeCode(ByteBuffer data, int offset, int length, FrequencyTable table, ByteBuffer out, int codeStart, int codeEnd);
+
+    //Метод для декодирования length байтов из кода in[codeStart, codeLimit) в output, начиная с outputOffset.
+    abstract void decodeCode(FrequencyTable table, ByteBuffer in, int codeStart, int codeLimit, ByteBuffer output, int outputOffset, int length);
+
+    //Метод для наибольшего размера кода length байтов.
+    abstract long maxCodeSize(int length);
+
+    @Override
+    public byte[] encode(byte[] data, int offset, int length) {
+        return encode(data, offset, length, Histogram.count(data, offset, length));
+    }
+
+    @Override
+    public byte[] encode(byte[] data, int offset, int length, int[] counts) {
+        Histogram.check(counts, length);
+        ByteBuffer target = ByteBuffer.allocate(maxEncodedLength(length));
+        int size = encode(ByteBuffer.wrap(data), offset, length, counts, target, 0);
+        return Arrays.copyOf(target.array(), size);
+    }
+
+    @Override
+    public int encode(ByteBuffer source, ByteBuffer target) {
+        return encode(source, target, Histogram.count(source, source.position(), source.remaining()));
+    }
+
+    @Override
+    public int encode(ByteBuffer source, ByteBuffer target, int[] counts) {
+        Histogram.check(counts, source.remaining());
+        int size = encode(source, source.position(), source.remaining(), counts, target, target.position());
+        source.position(source.limit());
+        target.position(target.position() + size);
+        return size;
+    }
+
+    // Кодирование length байтов из data с количествами counts, начиная с offset, в target с позиции targetOffset;
+    // возвращает размер блока
+    private int encode(ByteBuffer data, int offset, int length, int[] counts, ByteBuffer target, int targetOffset) {
+        long start = System.nanoTime();
+        FrequencyTable table = FrequencyTable.normalized(counts, scaleBits);
+        long modelEnd = System.nanoTime();
+        Metrics.get().modelBuilt(codec, table.symbolCount(), modelEnd - start);
+        ByteBuffer out = target.duplicate().order(ByteOrder.BIG_ENDIAN);
+        out.position(targetOffset);
+        out.putInt(length);
+        table.write(out);
+        int sizePosition = out.position();
+        int codeStart = sizePosition + 4;
+        int codeEnd = (int) Math.min(out.limit(), codeStart + maxCodeSize(length));
+        int first = length == 0 ? codeEnd : encodeCode(data, offset, length, table, out, codeStart, codeEnd);
+        int codeSize = codeEnd - first;
+        out.putInt(sizePosition, codeSize);
+        out.put(codeStart, out, first, codeSize);
+        int size = codeStart + codeSize - targetOffset;
+        Metrics.get().encoded(codec, length, size, System.nanoTime() - modelEnd);
+        return size;
+    }
+
+    @Override
+    public int decode(byte[] block, int offset, int length, byte[] output, int outputOffset) {
+        return decode(ByteBuffer.wrap(block), offset, offset + length, ByteBuffer.wrap(output), outputOffset);
+    }
+
+    @Override
+    public int decode(ByteBuffer block, ByteBuffer target) {
+        int length = decode(block, block.position(), block.limit(), target, target.position());
+        block.position(block.limit());
+        target.position(target.position() + length);
+        return length;
+    }
+
+    // Декодирование блока block[offset, limit) в output, начиная с outputOffset
+    private int decode(ByteBuffer block, int offset, int limit, ByteBuffer output, int outputOffset) {
+        long start = System.nanoTime();
+        ByteBuffer in = block.duplicate().order(ByteOrder.BIG_ENDIAN);
+        in.limit(limit);
+        in.position(offset);
+        try {
+            int length = in.getInt();
+            if (length < 0 || length > output.limit() - outputOffset) {
+                throw new IllegalStateException("Поврежденные данные: неверная длина блока " + length);
+            }
+            FrequencyTable table = FrequencyTable.read(in);
+            int size = in.getInt();
+            if (size < 0 || size > in.remaining()) {
+                throw new IllegalStateException("Поврежденные данные: неверный размер кода " + size);
+            }
+            if (length > 0) {
+                if (table.total() != 1 << scaleBits) {
+                    throw new IllegalStateException("Поврежденные данные: сумма частот модели " + table.total());
+                }
+                decodeCode(table, in, in.position(), in.position() + size, output, outputOffset, length);
+            }
+            Metrics.get().decoded(codec, in.position() + size - offset, length, System.nanoTime() - start);
+            return length;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalStateException("Поврежденные данные: блок обрывается", e);
+        }
+    }
+
+    @Override
+    public long estimatedLength(int[] counts) {
+        FrequencyTable table = FrequencyTable.normalized(counts, scaleBits);
+        // Кроме модели и кода - длина, размер кода и конечные состояния (их дает оценка для пустого блока)
+        return 4 + table.serializedSize() + 4 + table.codeSize(counts) + maxCodeSize(0);
+    }
+
+    @Override
+    public int maxEncodedLength(int length) {
+        return (int) Math.min(Integer.MAX_VALUE, 4L + FrequencyTable.MAX_SERIALIZED_SIZE + 4 + maxCodeSize(length));
+    }
+}
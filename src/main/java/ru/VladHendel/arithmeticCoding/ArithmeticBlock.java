@@ -0,0 +1,103 @@
+package ru.VladHendel.arithmeticCoding;
+
+import ru.VladHendel.metrics.Metrics;
+import ru.VladHendel.statistics.Histogram;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+//Класс для кодирования блока байтов кодером диапазона с собственной статической моделью.
+//Блок: 4 байта количества байтов, модель (FrequencyTable), 4 байта размера кода, код.
+//Длина блока записана явно, поэтому символ остановки не нужен.
+//Данные читаются и пишутся по абсолютным позициям буферов, поэтому подходят и массивы, и отображенные в память файлы.
+final class ArithmeticBlock {
+    // Максимальный допустимый размер блока (защита от поврежденных данных)
+    static final int MAX_BLOCK_SIZE = 1 << 30;
+    // Имя кодека в метриках
+    static final String CODEC = "arithmetic";
+
+    private ArithmeticBlock() {
+    }
+
+    //Метод для кодирования length байтов из data, начиная с offset, вслед за уже записанными байтами кодера.
+    static void encode(ByteBuffer data, int offset, int length, RangeEncoder encoder) {
+        // Подсчитываем количества байтов блока
+        encode(data, offset, length, Histogram.count(data, offset, length), encoder);
+    }
+
+    //Метод для кодирования length байтов из data, начиная с offset, по уже подсчитанным количествам байтов counts.
+    static void encode(ByteBuffer data, int offset, int length, int[] counts, RangeEncoder encoder) {
+        long start = System.nanoTime();
+        int sizeBefore = encoder.size();
+        // Строим модель по количествам байтов блока
+        FrequencyTable table = FrequencyTable.fromCounts(counts);
+        long modelEnd = System.nanoTime();
+        Metrics.get().modelBuilt(CODEC, table.symbolCount(), modelEnd - start);
+        ByteBuffer out = encoder.output(4 + FrequencyTable.MAX_SERIALIZED_SIZE + 4);
+        out.putInt(length);
+        table.write(out);
+        // Размер кода известен только после кодирования, пока оставляем под него место
+        int sizePosition = out.position();
+        out.putInt(0);
+        encoder.restart();
+        int total = table.total();
+        for (int i = offset; i < offset + length; i++) {
+            int symbol = data.get(i) & 0xFF;
+            encoder.encode(table.start(symbol), table.frequency(symbol), total);
+        }
+        encoder.flush();
+        out = encoder.output(0);
+        out.putInt(sizePosition, out.position() - sizePosition - 4);
+        Metrics.get().encoded(CODEC, length, encoder.size() - sizeBefore, System.nanoTime() - modelEnd);
+    }
+
+    //Метод для наибольшего размера блока, кодирующего length байтов.
+    static int maxEncodedLength(int length) {
+        return (int) Math.min(Integer.MAX_VALUE, 4L + FrequencyTable.MAX_SERIALIZED_SIZE + 4 + RangeEncoder.maxCodeSize(length));
+    }
+
+    //Метод для оценки размера блока, кодирующего байты с количествами counts (кодер диапазона сбрасывает до 4 байтов).
+    static long estimatedLength(int[] counts) {
+        FrequencyTable table = FrequencyTable.fromCounts(counts);
+        return 4 + table.serializedSize() + 4 + table.codeSize(counts) + 4;
+    }
+
+    //Метод для чтения количества байтов в блоке (без декодирования).
+    static int decodedLength(ByteBuffer block, int offset) {
+        return block.duplicate().order(ByteOrder.BIG_ENDIAN).getInt(offset);
+    }
+
+    //Метод для декодирования блока block[offset, limit) в output, начиная с outputOffset; возвращает количество байтов.
+    static int decode(ByteBuffer block, int offset, int limit, ByteBuffer output, int outputOffset) {
+        long start = System.nanoTime();
+        ByteBuffer in = block.duplicate().order(ByteOrder.BIG_ENDIAN);
+        in.limit(limit);
+        in.position(offset);
+        try {
+            int length = in.getInt();
+            if (length < 0 || length > output.limit() - outputOffset) {
+                throw new IllegalStateException("Поврежденные данные: неверная длина блока " + length);
+            }
+            FrequencyTable table = FrequencyTable.read(in);
+            int size = in.getInt();
+            if (size < 0 || size > in.remaining()) {
+                throw new IllegalStateException("Поврежденные данные: неверный размер кода " + size);
+            }
+            if (length > 0 && table.total() == 0) {
+                throw new IllegalStateException("Поврежденные данные: пустая модель непустого блока");
+            }
+            RangeDecoder decoder = new RangeDecoder(in, in.position(), size);
+            int total = table.total();
+            for (int i = 0; i < length; i++) {
+                int symbol = table.symbolFor(decoder.getFreq(total));
+                decoder.decode(table.start(symbol), table.frequency(symbol));
+                output.put(outputOffset + i, (byte) symbol);
+            }
+            Metrics.get().decoded(CODEC, in.position() + size - offset, length, System.nanoTime() - start);
+            return length;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalStateException("Поврежденные данные: блок обрывается", e);
+        }
+    }
+}
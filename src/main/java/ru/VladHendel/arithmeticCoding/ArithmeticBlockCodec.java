@@ -0,0 +1,62 @@
+package ru.VladHendel.arithmeticCoding;
+
+import ru.VladHendel.blockCoding.BlockCodec;
+import ru.VladHendel.statistics.Histogram;
+
+import java.nio.ByteBuffer;
+
+//Класс кодека блоков на основе кодера диапазона (формат блока см. ArithmeticBlock).
+//Не хранит состояния, поэтому один экземпляр можно использовать из нескольких потоков.
+public final class ArithmeticBlockCodec implements BlockCodec {
+    @Override
+    public byte[] encode(byte[] data, int offset, int length) {
+        return encode(data, offset, length, Histogram.count(data, offset, length));
+    }
+
+    @Override
+    public byte[] encode(byte[] data, int offset, int length, int[] counts) {
+        Histogram.check(counts, length);
+        RangeEncoder encoder = new RangeEncoder(length / 2 + 64);
+        ArithmeticBlock.encode(ByteBuffer.wrap(data), offset, length, counts, encoder);
+        return encoder.toByteArray();
+    }
+
+    @Override
+    public int decode(byte[] block, int offset, int length, byte[] output, int outputOffset) {
+        return ArithmeticBlock.decode(ByteBuffer.wrap(block), offset, offset + length, ByteBuffer.wrap(output), outputOffset);
+    }
+
+    @Override
+    public int encode(ByteBuffer source, ByteBuffer target) {
+        return encode(source, target, Histogram.count(source, source.position(), source.remaining()));
+    }
+
+    @Override
+    public int encode(ByteBuffer source, ByteBuffer target, int[] counts) {
+        Histogram.check(counts, source.remaining());
+        RangeEncoder encoder = new RangeEncoder(target);
+        ArithmeticBlock.encode(source, source.position(), source.remaining(), counts, encoder);
+        int size = encoder.size();
+        source.position(source.limit());
+        target.position(target.position() + size);
+        return size;
+    }
+
+    @Override
+    public int decode(ByteBuffer block, ByteBuffer target) {
+        int length = ArithmeticBlock.decode(block, block.position(), block.limit(), target, target.position());
+        block.position(block.limit());
+        target.position(target.position() + length);
+        return length;
+    }
+
+    @Override
+    public int maxEncodedLength(int length) {
+        return ArithmeticBlock.maxEncodedLength(length);
+    }
+
+    @Override
+    public long estimatedLength(int[] counts) {
+        return ArithmeticBlock.estimatedLength(counts);
+    }
+}
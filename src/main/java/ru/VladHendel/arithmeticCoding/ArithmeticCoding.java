@@ -1,153 +1,125 @@
 package ru.VladHendel.arithmeticCoding;
 
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import ru.VladHendel.concurrent.ContextPool;
+import ru.VladHendel.metrics.Metrics;
+import ru.VladHendel.statistics.Histogram;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
  //Класс для реализации арифметического кодирования.
-public class ArithmeticCoding {
-     // Map для хранения вероятностей символов
-    private LinkedHashMap<Character, Fraction> probabilities;
-     // Список интервалов для каждого символа
-    private ArrayList<SymbolRange> ranges;
-     // Счетчик общего количества символов
-    private int counter;
-     // Символ остановки
-    private char stopSymbol = '%';
-
-     //Конструктор, инициализирующий вероятности и интервалы символов.
+ //Кодирование выполняется целочисленным кодером диапазона (RangeEncoder) по накопленным частотам байтов;
+ //текст кодируется как байты UTF-8, поэтому принимаются и произвольные двоичные данные.
+ //Экземпляр неизменяем: модель строится один раз (конструктором или через Builder), а кодеры с выходными буферами
+ //берутся из пула без блокировок, поэтому один экземпляр можно использовать из любого числа потоков.
+public final class ArithmeticCoding {
+     // Максимальная сумма частот: при 32-битном интервале и нормализации до 2^24 на единицу частоты остается не меньше 2^8
+    static final int MAX_TOTAL = 1 << 16;
+     // Наибольшая емкость выходного буфера, который возвращается в пул (большие буферы не удерживаются)
+    private static final int MAX_POOLED_CAPACITY = 1 << 20;
+     // Модель: масштабированные частоты байтов и их накопленные суммы
+    private final FrequencyTable table;
+     // Пул переиспользуемых кодеров
+    private final ContextPool<RangeEncoder> encoders;
+
+     //Конструктор, инициализирующий частоты и интервалы символов текста.
     public ArithmeticCoding(String text) {
-        calculateProbabilities(text); // Расчет вероятностей символов
-        calculateRanges(); // Расчет интервалов на основе вероятностей
+        this(text.getBytes(StandardCharsets.UTF_8));
     }
 
+     //Конструктор, инициализирующий частоты и интервалы байтов.
+    public ArithmeticCoding(byte[] data) {
+        this(calculateProbabilities(new int[FrequencyTable.ALPHABET_SIZE], data), ContextPool.DEFAULT_SIZE);
+    }
 
-     // Расчет вероятностей каждого символа в тексте.
-    private void calculateProbabilities(String text) {
-        // map для хранения частот символов
-        LinkedHashMap<Character, Integer> frequency = new LinkedHashMap<>();
-        // Проходим по каждому символу в тексте
-        for (char c : text.toCharArray()) {
-            // Если символ еще не встречался, инициализируем его частоту нулем
-            if (!frequency.containsKey(c)) {
-                frequency.put(c, 0);
-            }
-            // Увеличиваем частоту символа на 1
-            frequency.put(c, frequency.get(c) + 1);
-            // Увеличиваем общий счетчик символов
-            counter++;
-        }
+     //Конструктор по готовым количествам байтов и размеру пула кодеров.
+    private ArithmeticCoding(int[] counts, int poolSize) {
+        long start = System.nanoTime();
+        // Масштабируем частоты и вычисляем интервалы
+        table = FrequencyTable.fromCounts(counts);
+        Metrics.get().modelBuilt(ArithmeticBlock.CODEC, table.symbolCount(), System.nanoTime() - start);
+        encoders = new ContextPool<>(poolSize, RangeEncoder::new);
+    }
 
-        // Добавляем символ остановки, если он еще не добавлен
-        if (!frequency.containsKey(stopSymbol)) {
-            frequency.put(stopSymbol, 1);
-            // Увеличиваем общий счетчик символов
-            counter++;
-        }
-        // Инициализируем MAPу вероятностей
-        probabilities = new LinkedHashMap<>();
-        // Вычисляем вероятность для каждого символа
-        for (Map.Entry<Character, Integer> entry : frequency.entrySet()) {
-            // Вероятность символа = частота / общее количество символов
-            probabilities.put(entry.getKey(), new Fraction(entry.getValue(), counter));
-        }
-        // Выводим рассчитанные вероятности
-        System.out.println(probabilities);
+     //Метод для создания построителя модели.
+    public static Builder builder() {
+        return new Builder();
     }
 
-    // Расчет интервалов для символов
-    private void calculateRanges() {
-        // Инициализируем список интервалов
-        ranges = new ArrayList<>();
-        Fraction lowerBound = new Fraction(0, 1); // Начальная нижняя граница [0, 1]
-        // Проходим по каждому символу и его вероятности
-        for (Map.Entry<Character, Fraction> entry : probabilities.entrySet()) {
-            char symbol = entry.getKey();//загружаем ключ (сисвол) из мапы в переменную
-            Fraction probability = entry.getValue(); // Вероятность текущего символа
-            // Верхняя граница интервала = нижняя граница + вероятность символа
-            Fraction upperBound = lowerBound.add(probability); // Верхняя граница интервала
-            // Добавляем новый интервал для символа в список
-            ranges.add(new SymbolRange(symbol, lowerBound, upperBound)); // Добавляем новый интервал в список
-            // Выводим интервал символа
-            System.out.println(symbol + " : [ " + lowerBound + ", " + upperBound + " ]");
-            lowerBound = upperBound; // Обновление нижней границы для следующего символа
-        }
+     // Расчет количества каждого байта в данных: количества data добавляются к counts.
+    private static int[] calculateProbabilities(int[] counts, byte[] data) {
+        Histogram.count(ByteBuffer.wrap(data), 0, data.length, counts);
+        return counts;
     }
 
-    // Кодирование текста
-    public Fraction encode(String text) {
-        // Добавляем символ остановки в конец текста
-        text += stopSymbol;
-        // Инициализируем начальные нижнюю и верхнюю границы интервала
-        Fraction lower = new Fraction(0, 1); //нижняя граница
-        Fraction upper = new Fraction(1, 1); //верхняя граница
-        // Проходим по каждому символу в тексте
-        for (char c : text.toCharArray()) {
-            // Получаем интервал для текущего символа
-            SymbolRange range = getSymbolRange(c);
-            // Вычисляем ширину текущего интервала
-            Fraction rangeWidth = upper.subtract(lower);
-            // Обновляем верхнюю границу: нижняя_граница + ширина_интевала * верхняя_границв_символа
-            upper = lower.add(rangeWidth.multiply(range.upperBound));
-            // Обновляем нижнюю границу: нижняя_граница + ширина_интевала * нижняя_граница_символа
-            lower = lower.add(rangeWidth.multiply(range.lowerBound));
-        }
-        // Возвращаем полученную дробь, представляющую закодированный текст
-        return lower;
+    // Кодирование текста в последовательность байтов
+    public byte[] encode(String text) {
+        return encode(text.getBytes(StandardCharsets.UTF_8));
     }
 
-    // Получение интервала для символа
-    private SymbolRange getSymbolRange(char c) {
-        // Проходим по списку интервалов
-        for (SymbolRange range : ranges) {
-            // Если символ совпадает, возвращаем интервал
-            if (range.symbol == c) {
-                return range;
+    // Кодирование данных: 4 байта длины, затем код (длина записана явно, поэтому символ остановки не нужен)
+    public byte[] encode(byte[] data) {
+        long start = System.nanoTime();
+        // Проверяем, что каждый байт есть в модели
+        int[] counts = Histogram.count(data, 0, data.length);
+        for (int symbol = 0; symbol < FrequencyTable.ALPHABET_SIZE; symbol++) {
+            if (counts[symbol] > 0 && table.frequency(symbol) == 0) {
+                throw new IllegalArgumentException("Байт " + symbol + " отсутствует в модели");
+            }
+        }
+        // Кодер из пула; после кодирования он очищается и возвращается
+        RangeEncoder encoder = encoders.acquire();
+        try {
+            // Сразу отводим место под длину и оценку размера кода (с запасом на округление и сброс),
+            // чтобы большой буфер не удваивался с копированием
+            encoder.reserve(4 + table.codeSize(counts) + data.length / 256 + 16);
+            // Перед кодом записываем длину
+            encoder.output(4).putInt(data.length);
+            int total = table.total();
+            // Проходим по каждому байту
+            for (byte b : data) {
+                int symbol = b & 0xFF;
+                // Сужаем интервал кодера до интервала байта
+                encoder.encode(table.start(symbol), table.frequency(symbol), total);
+            }
+            byte[] encoded = encoder.finish();
+            Metrics.get().encoded(ArithmeticBlock.CODEC, data.length, encoded.length, System.nanoTime() - start);
+            return encoded;
+        } finally {
+            encoder.reset();
+            if (encoder.capacity() <= MAX_POOLED_CAPACITY) {
+                encoders.release(encoder);
             }
         }
-        // Если символ не найден возвращаем 0
-        return null;
     }
 
-    // Декодирование закодированного сообщения
-    public String decode(Fraction code) {
-        // Строка для накопления декодированного текста
-        StringBuilder decoded = new StringBuilder();
-        // Инициализируем начальные нижнюю и верхнюю границы интервала
-        Fraction lower = new Fraction(0, 1);
-        Fraction upper = new Fraction(1, 1);
-        //цикл декодирования символов, который будет прерываться при обнаружении символа остановки.
-        while (true) {
-            // Вычисляем ширину текущего интервала
-            Fraction rangeWidth = upper.subtract(lower);
-            // вычисляем относительное положение закодированного значения внутри текущего интервала: (code - lower) / rangeWidth
-            Fraction value = code.subtract(lower).divide(rangeWidth);
-            //булевая переменная, инициализируется как false. Она станет true, когда соответствующий символ будет найден.
-            boolean symbolFound = false;
-            // Проходим по всем интервалам символов
-            for (SymbolRange symbolRange : ranges) {
-                // Проверяем, попадает ли символ в интервал
-                if (symbolRange.isInRange(value)) {
-                    // Добавляем символ к декодированному тексту
-                    decoded.append(symbolRange.symbol);
-                    // Если найден символ остановки, завершаем декодирование
-                    if (symbolRange.symbol == stopSymbol) {
-                        // Возвращаем декодированный текст без символа остановки
-                        return decoded.substring(0, decoded.length() - 1);
-                    }
-                    // Обновляем границы для следующего символа
-                    // upper = lower + rangeWidth * upperBound символа
-                    upper = lower.add(rangeWidth.multiply(symbolRange.upperBound));
-                    // lower = lower + rangeWidth * lowerBound символа
-                    lower = lower.add(rangeWidth.multiply(symbolRange.lowerBound));
-                    // Отмечаем, что символ найден
-                    symbolFound = true;
-                    // Переходим к следующему символу
-                    break;
-                }
-            }
+    // Декодирование закодированного текста
+    public String decode(byte[] encoded) {
+        return new String(decodeBytes(encoded), StandardCharsets.UTF_8);
+    }
+
+    // Декодирование закодированных данных
+    public byte[] decodeBytes(byte[] encoded) {
+        long start = System.nanoTime();
+        // Количество закодированных байтов
+        int length = ByteBuffer.wrap(encoded).getInt();
+        if (length < 0 || (length > 0 && table.total() == 0)) {
+            throw new IllegalStateException("Поврежденные данные: неверная длина " + length);
+        }
+        byte[] decoded = new byte[length];
+        // Декодер диапазона над закодированными байтами
+        RangeDecoder decoder = new RangeDecoder(encoded, 4, encoded.length - 4);
+        int total = table.total();
+        for (int i = 0; i < length; i++) {
+            // Байт, в интервал которого попадает кодовое значение
+            int symbol = table.symbolFor(decoder.getFreq(total));
+            // Сужаем интервал декодера до интервала байта
+            decoder.decode(table.start(symbol), table.frequency(symbol));
+            decoded[i] = (byte) symbol;
         }
+        Metrics.get().decoded(ArithmeticBlock.CODEC, encoded.length, length, System.nanoTime() - start);
+        return decoded;
     }
 
     //Метод для запуска программы
@@ -157,11 +129,11 @@ public class ArithmeticCoding {
                 "— Avant tout dites-moi, comment vous allez, chère amie?  Успокойте меня, — сказал он, не изменяя голоса и тоном, в котором из-за приличия и участия просвечивало равнодушие и даже насмешка.";
         // Записываем время начала выполнения
         long startTime = System.currentTimeMillis();
-        // Создаем экземпляр класса ArithmeticCoding и инициализируем его с текстом
-        ArithmeticCoding ac = new ArithmeticCoding(text);
-        // Кодирование текста, получаем закодированное значение в виде дроби
-        Fraction encoded = ac.encode(text);
-        System.out.println("Закодированное значение: " + encoded);
+        // Создаем экземпляр класса ArithmeticCoding: строим модель по байтам текста
+        ArithmeticCoding ac = ArithmeticCoding.builder().sample(text).build();
+        // Кодирование текста, получаем закодированные байты
+        byte[] encoded = ac.encode(text);
+        System.out.println("Закодированное значение: " + encoded.length + " байт");
         // Декодирование закодированного значения обратно в текст
         String decoded = ac.decode(encoded);
         System.out.println("\nДекодированный текст:\n" + decoded);
@@ -177,4 +149,55 @@ public class ArithmeticCoding {
         long executionTime = endTime - startTime;
         System.out.println("Время выполнения: " + executionTime + " миллисекунд.");
     }
+
+     //Класс построителя неизменяемого ArithmeticCoding: количества байтов накапливаются по образцам, модель строится в build.
+     //Сам построитель не потокобезопасен.
+    public static final class Builder {
+        // Накопленные количества байтов (индекс = байт)
+        private final int[] counts = new int[FrequencyTable.ALPHABET_SIZE];
+        // Размер пула кодеров
+        private int poolSize = ContextPool.DEFAULT_SIZE;
+
+        private Builder() {
+        }
+
+        //Метод для добавления количеств байтов образца.
+        public Builder sample(byte[] data) {
+            calculateProbabilities(counts, data);
+            return this;
+        }
+
+        //Метод для добавления количеств байтов текста (в UTF-8).
+        public Builder sample(String text) {
+            return sample(text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        //Метод для добавления готовых количеств (индекс = байт).
+        public Builder counts(int[] values) {
+            if (values.length > FrequencyTable.ALPHABET_SIZE) {
+                throw new IllegalArgumentException("Количеств больше, чем байтов: " + values.length);
+            }
+            for (int symbol = 0; symbol < values.length; symbol++) {
+                if (values[symbol] < 0) {
+                    throw new IllegalArgumentException("Отрицательное количество байта " + symbol);
+                }
+                counts[symbol] += values[symbol];
+            }
+            return this;
+        }
+
+        //Метод для задания размера пула кодеров (0 - кодеры не переиспользуются).
+        public Builder poolSize(int poolSize) {
+            if (poolSize < 0) {
+                throw new IllegalArgumentException("Размер пула не может быть отрицательным: " + poolSize);
+            }
+            this.poolSize = poolSize;
+            return this;
+        }
+
+        //Метод для построения модели; построитель можно использовать дальше, на готовый экземпляр это не влияет.
+        public ArithmeticCoding build() {
+            return new ArithmeticCoding(counts.clone(), poolSize);
+        }
+    }
 }
@@ -0,0 +1,103 @@
+package ru.VladHendel.arithmeticCoding;
+
+import ru.VladHendel.dictionary.MessageCodec;
+import ru.VladHendel.metrics.Metrics;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+//Класс кодека коротких сообщений кодером диапазона со статической моделью, построенной заранее по обучающему корпусу.
+//Сообщение: длина (по 7 бит в байте, старший бит - признак продолжения), затем код без модели.
+//Нулевые байты в конце не хранятся: за концом данных RangeDecoder подставляет нули.
+public final class ArithmeticDictionaryCodec implements MessageCodec {
+    // Имя кодека в метриках
+    static final String CODEC = "arithmetic-dictionary";
+    // Максимальная длина сообщения (защита от поврежденных данных)
+    private static final int MAX_LENGTH = 1 << 30;
+
+    // Модель, построенная по обучающему корпусу
+    private final FrequencyTable table;
+
+    //Конструктор по количествам байтов (индекс = байт); байты с нулевым количеством закодировать будет нельзя.
+    public ArithmeticDictionaryCodec(int[] counts) {
+        long start = System.nanoTime();
+        table = FrequencyTable.fromCounts(counts);
+        Metrics.get().modelBuilt(CODEC, table.symbolCount(), System.nanoTime() - start);
+    }
+
+    @Override
+    public byte[] encode(byte[] message) {
+        if (message.length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Сообщение длиннее " + MAX_LENGTH + " байт: " + message.length);
+        }
+        long start = System.nanoTime();
+        RangeEncoder encoder = new RangeEncoder(message.length + 16);
+        // Длина сообщения перед кодом
+        ByteBuffer header = encoder.output(5);
+        int length = message.length;
+        while (length >= 0x80) {
+            header.put((byte) ((length & 0x7F) | 0x80));
+            length >>>= 7;
+        }
+        header.put((byte) length);
+        int headerSize = encoder.size();
+        int total = table.total();
+        for (byte b : message) {
+            int symbol = b & 0xFF;
+            int frequency = table.frequency(symbol);
+            if (frequency == 0) {
+                throw new IllegalArgumentException("Байт " + symbol + " отсутствует в модели");
+            }
+            encoder.encode(table.start(symbol), frequency, total);
+        }
+        byte[] encoded = encoder.finish();
+        // Отбрасываем нулевые байты в конце кода
+        int size = encoded.length;
+        while (size > headerSize && encoded[size - 1] == 0) {
+            size--;
+        }
+        encoded = Arrays.copyOf(encoded, size);
+        Metrics.get().encoded(CODEC, message.length, encoded.length, System.nanoTime() - start);
+        return encoded;
+    }
+
+    @Override
+    public byte[] decode(byte[] encoded) {
+        long start = System.nanoTime();
+        ByteBuffer header = ByteBuffer.wrap(encoded);
+        int length = readLength(header);
+        if (length > 0 && table.total() == 0) {
+            throw new IllegalStateException("Поврежденные данные: неверная длина сообщения " + length);
+        }
+        int position = header.position();
+        byte[] message = new byte[length];
+        RangeDecoder decoder = new RangeDecoder(encoded, position, encoded.length - position);
+        int total = table.total();
+        for (int i = 0; i < message.length; i++) {
+            int symbol = table.symbolFor(decoder.getFreq(total));
+            decoder.decode(table.start(symbol), table.frequency(symbol));
+            message[i] = (byte) symbol;
+        }
+        Metrics.get().decoded(CODEC, encoded.length, message.length, System.nanoTime() - start);
+        return message;
+    }
+
+    // Чтение длины сообщения с позиции header: до 5 байтов, сумма в long, чтобы пятый байт не переполнил int до проверки
+    static int readLength(ByteBuffer header) {
+        long length = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (!header.hasRemaining() || shift > 28) {
+                throw new IllegalStateException("Поврежденные данные: неверная длина сообщения");
+            }
+            int b = header.get() & 0xFF;
+            length |= (long) (b & 0x7F) << shift;
+            if (b < 0x80) {
+                break;
+            }
+        }
+        if (length > MAX_LENGTH) {
+            throw new IllegalStateException("Поврежденные данные: неверная длина сообщения " + length);
+        }
+        return (int) length;
+    }
+}
@@ -0,0 +1,97 @@
+package ru.VladHendel.arithmeticCoding;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+//Класс потока, распаковывающего данные, записанные ArithmeticOutputStream.
+//В памяти держится только один сжатый и один распакованный блок.
+public class ArithmeticInputStream extends InputStream {
+    // Нижележащий поток сжатых данных
+    private final DataInputStream in;
+    // Буфер сжатого блока
+    private byte[] compressed = new byte[0];
+    // Буфер распакованного блока
+    private byte[] block = new byte[0];
+    // Позиция чтения в распакованном блоке
+    private int position;
+    // Количество байтов в распакованном блоке
+    private int blockLength;
+    // Признак конца сжатых данных
+    private boolean eof;
+
+    public ArithmeticInputStream(InputStream in) {
+        this.in = new DataInputStream(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == blockLength && !readBlock()) {
+            return -1;
+        }
+        return block[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (position == blockLength && !readBlock()) {
+            return -1;
+        }
+        int count = Math.min(len, blockLength - position);
+        System.arraycopy(block, position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return blockLength - position;
+    }
+
+    // Чтение и распаковка следующего блока; false, если данные закончились
+    private boolean readBlock() throws IOException {
+        // Пустые блоки пропускаем
+        while (!eof) {
+            int first = in.read();
+            if (first < 0) {
+                eof = true;
+                return false;
+            }
+            int size = (first << 24) | (in.readUnsignedByte() << 16) | (in.readUnsignedShort());
+            if (size < 4 || size > ArithmeticBlock.MAX_BLOCK_SIZE) {
+                throw new IOException("Поврежденные данные: неверный размер блока " + size);
+            }
+            if (compressed.length < size) {
+                compressed = new byte[size];
+            }
+            in.readFully(compressed, 0, size);
+            ByteBuffer compressedBuffer = ByteBuffer.wrap(compressed, 0, size);
+            int length = ArithmeticBlock.decodedLength(compressedBuffer, 0);
+            if (length < 0 || length > ArithmeticBlock.MAX_BLOCK_SIZE) {
+                throw new IOException("Поврежденные данные: неверная длина блока " + length);
+            }
+            if (block.length < length) {
+                block = new byte[length];
+            }
+            try {
+                blockLength = ArithmeticBlock.decode(compressedBuffer, 0, size, ByteBuffer.wrap(block), 0);
+            } catch (IllegalStateException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            position = 0;
+            if (blockLength > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,104 @@
+package ru.VladHendel.arithmeticCoding;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+//Класс потока, сжимающего данные арифметическим кодированием по блокам фиксированного размера.
+//Каждый блок кодируется со своей моделью и записывается как 4 байта размера и закодированный блок (см. ArithmeticBlock),
+//поэтому память ограничена размером блока.
+public class ArithmeticOutputStream extends FilterOutputStream {
+    // Размер блока по умолчанию
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+
+    // Буфер накапливаемого блока
+    private final byte[] block;
+    // Буфер блока для кодера
+    private final ByteBuffer blockBuffer;
+    // Количество байтов в буфере блока
+    private int blockLength;
+    // Кодер диапазона, переиспользуемый для всех блоков
+    private final RangeEncoder encoder;
+    // Признак того, что последний блок уже записан
+    private boolean finished;
+
+    public ArithmeticOutputStream(OutputStream out) {
+        this(out, DEFAULT_BLOCK_SIZE);
+    }
+
+    //Конструктор с размером блока.
+    public ArithmeticOutputStream(OutputStream out, int blockSize) {
+        super(out);
+        if (blockSize <= 0 || blockSize > ArithmeticBlock.MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("Недопустимый размер блока: " + blockSize);
+        }
+        block = new byte[blockSize];
+        blockBuffer = ByteBuffer.wrap(block);
+        encoder = new RangeEncoder(blockSize / 2);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        block[blockLength++] = (byte) b;
+        if (blockLength == block.length) {
+            writeBlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            // Копируем столько, сколько помещается в текущий блок
+            int count = Math.min(len, block.length - blockLength);
+            System.arraycopy(b, off, block, blockLength, count);
+            blockLength += count;
+            off += count;
+            len -= count;
+            if (blockLength == block.length) {
+                writeBlock();
+            }
+        }
+    }
+
+    // Кодирование и запись накопленного блока
+    private void writeBlock() throws IOException {
+        encoder.reset();
+        ArithmeticBlock.encode(blockBuffer, 0, blockLength, encoder);
+        int size = encoder.size();
+        out.write(size >>> 24);
+        out.write(size >>> 16);
+        out.write(size >>> 8);
+        out.write(size);
+        encoder.writeTo(out);
+        blockLength = 0;
+    }
+
+    // Проверка, что поток еще принимает данные
+    private void ensureOpen() throws IOException {
+        if (finished) {
+            throw new IOException("Поток уже завершен");
+        }
+    }
+
+    //Метод для записи последнего неполного блока без закрытия нижележащего потока.
+    public void finish() throws IOException {
+        if (!finished) {
+            if (blockLength > 0) {
+                writeBlock();
+            }
+            finished = true;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+}
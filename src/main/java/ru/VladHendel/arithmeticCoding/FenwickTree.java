@@ -0,0 +1,75 @@
+package ru.VladHendel.arithmeticCoding;
+
+import java.util.Arrays;
+
+//Класс дерева Фенвика над частотами символов: накопленная частота и поиск символа по ней за O(log n).
+final class FenwickTree {
+    // Количество символов
+    final int size;
+    // Частичные суммы (индексация с 1)
+    final int[] tree;
+    // Частоты символов
+    private final int[] frequencies;
+    // Сумма частот
+    private int total;
+
+    //Конструктор дерева, в котором все символы имеют частоту initial.
+    FenwickTree(int size, int initial) {
+        this.size = size;
+        this.tree = new int[size + 1];
+        this.frequencies = new int[size];
+        Arrays.fill(frequencies, initial);
+        rebuild();
+    }
+
+    // Пересчет частичных сумм и суммы частот по массиву частот за O(n)
+    private void rebuild() {
+        total = 0;
+        for (int i = 1; i <= size; i++) {
+            tree[i] = frequencies[i - 1];
+            total += frequencies[i - 1];
+        }
+        for (int i = 1; i <= size; i++) {
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    // Сумма частот
+    int total() {
+        return total;
+    }
+
+    // Частота символа
+    int frequency(int symbol) {
+        return frequencies[symbol];
+    }
+
+    // Накопленная частота всех символов, меньших symbol
+    int prefixSum(int symbol) {
+        int sum = 0;
+        for (int i = symbol; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    // Увеличение частоты символа на delta
+    void add(int symbol, int delta) {
+        frequencies[symbol] += delta;
+        total += delta;
+        for (int i = symbol + 1; i <= size; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // Уменьшение всех частот вдвое с округлением вверх (ненулевые частоты остаются ненулевыми)
+    void halve() {
+        for (int i = 0; i < size; i++) {
+            frequencies[i] = (frequencies[i] + 1) >>> 1;
+        }
+        rebuild();
+    }
+}
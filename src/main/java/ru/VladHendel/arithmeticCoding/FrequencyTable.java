@@ -0,0 +1,209 @@
+package ru.VladHendel.arithmeticCoding;
+
+import java.nio.ByteBuffer;
+
+//Класс статической модели байтов для кодера диапазона: масштабированные частоты и их накопленные суммы.
+final class FrequencyTable {
+    // Размер алфавита байтов
+    static final int ALPHABET_SIZE = 256;
+    // Разрядность индекса для поиска байта по накопленной частоте
+    private static final int LOOKUP_BITS = 10;
+    // Наибольший размер записанной модели: битовая карта и по 3 байта на частоту
+    static final int MAX_SERIALIZED_SIZE = ALPHABET_SIZE / 8 + ALPHABET_SIZE * 3;
+
+    // Накопленные частоты: интервал байта s - [cumulative[s], cumulative[s + 1])
+    private final int[] cumulative = new int[ALPHABET_SIZE + 1];
+    // Индекс для поиска: для каждой группы из 2^lookupShift накопленных частот - байт, в интервал которого попадает ее начало
+    private final byte[] lookup;
+    // Сдвиг накопленной частоты к номеру группы в индексе
+    private final int lookupShift;
+
+    //Конструктор по уже масштабированным частотам (сумма не больше MAX_TOTAL).
+    private FrequencyTable(int[] frequencies) {
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+            cumulative[symbol + 1] = cumulative[symbol] + frequencies[symbol];
+        }
+        int total = total();
+        lookupShift = Math.max(0, 32 - Integer.numberOfLeadingZeros(total) - LOOKUP_BITS);
+        lookup = new byte[(total >>> lookupShift) + 1];
+        int symbol = 0;
+        for (int group = 0; group < lookup.length; group++) {
+            while (symbol < ALPHABET_SIZE - 1 && cumulative[symbol + 1] <= group << lookupShift) {
+                symbol++;
+            }
+            lookup[group] = (byte) symbol;
+        }
+    }
+
+    //Метод для построения модели по количествам байтов; сумма частот приводится к MAX_TOTAL.
+    static FrequencyTable fromCounts(int[] counts) {
+        int[] frequencies = counts.clone();
+        long total = 0;
+        for (int count : frequencies) {
+            total += count;
+        }
+        while (total > ArithmeticCoding.MAX_TOTAL) {
+            // Делитель, приводящий сумму к MAX_TOTAL (не меньше 2, чтобы цикл гарантированно сходился)
+            long divisor = Math.max(2, (total + ArithmeticCoding.MAX_TOTAL - 1) / ArithmeticCoding.MAX_TOTAL);
+            total = 0;
+            for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+                if (frequencies[symbol] > 0) {
+                    // Каждый встретившийся байт сохраняет ненулевую частоту
+                    frequencies[symbol] = (int) Math.max(1, frequencies[symbol] / divisor);
+                    total += frequencies[symbol];
+                }
+            }
+        }
+        return new FrequencyTable(frequencies);
+    }
+
+    //Метод для построения модели с суммой частот ровно 2^totalBits (нужно для ANS, где сумма частот - размер таблицы состояний).
+    //Частоты округляются пропорционально количествам, каждый встретившийся байт сохраняет ненулевую частоту,
+    //а ошибка округления (не больше одной единицы на байт) снимается по единице с самых частых байтов или добавляется к ним.
+    static FrequencyTable normalized(int[] counts, int totalBits) {
+        int target = 1 << totalBits;
+        int[] frequencies = new int[ALPHABET_SIZE];
+        long total = 0;
+        int present = 0;
+        for (int count : counts) {
+            total += count;
+            if (count > 0) {
+                present++;
+            }
+        }
+        if (total == 0) {
+            return new FrequencyTable(frequencies);
+        }
+        if (present > target) {
+            throw new IllegalArgumentException("Байтов больше, чем 2^" + totalBits);
+        }
+        int sum = 0;
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+            if (counts[symbol] > 0) {
+                frequencies[symbol] = (int) Math.max(1, (counts[symbol] * (long) target + total / 2) / total);
+                sum += frequencies[symbol];
+            }
+        }
+        while (sum != target) {
+            // Самый частый байт, у которого можно отнять единицу (при избытке) или любой самый частый (при недостатке)
+            int largest = -1;
+            for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+                if ((sum < target || frequencies[symbol] > 1) && (largest < 0 || frequencies[symbol] > frequencies[largest])) {
+                    largest = symbol;
+                }
+            }
+            int step = sum < target ? 1 : -1;
+            frequencies[largest] += step;
+            sum += step;
+        }
+        return new FrequencyTable(frequencies);
+    }
+
+    // Сумма частот
+    int total() {
+        return cumulative[ALPHABET_SIZE];
+    }
+
+    // Начало интервала байта
+    int start(int symbol) {
+        return cumulative[symbol];
+    }
+
+    // Частота (ширина интервала) байта
+    int frequency(int symbol) {
+        return cumulative[symbol + 1] - cumulative[symbol];
+    }
+
+    // Поиск байта, в интервал которого попадает накопленная частота value (value < total):
+    // индекс дает байт в начале группы, дальше несколько шагов вперед внутри группы
+    int symbolFor(int value) {
+        int symbol = lookup[value >>> lookupShift] & 0xFF;
+        while (cumulative[symbol + 1] <= value) {
+            symbol++;
+        }
+        return symbol;
+    }
+
+    // Количество встречающихся байтов
+    int symbolCount() {
+        int count = 0;
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+            if (frequency(symbol) > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Размер модели, записанной методом write
+    int serializedSize() {
+        int size = ALPHABET_SIZE / 8;
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+            int frequency = frequency(symbol);
+            if (frequency > 0) {
+                size += frequency < 1 << 7 ? 1 : frequency < 1 << 14 ? 2 : 3;
+            }
+        }
+        return size;
+    }
+
+    // Оценка размера кода байтов с количествами counts в этой модели: байт s стоит log2(total / frequency(s)) бит
+    long codeSize(int[] counts) {
+        double bits = 0;
+        double log2Total = Math.log(total()) / Math.log(2);
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+            if (counts[symbol] > 0) {
+                bits += counts[symbol] * (log2Total - Math.log(frequency(symbol)) / Math.log(2));
+            }
+        }
+        return (long) Math.ceil(bits / 8);
+    }
+
+    //Метод для записи модели: битовая карта встречающихся байтов (32 байта), затем их частоты (по 7 бит в байте).
+    void write(ByteBuffer out) {
+        for (int group = 0; group < ALPHABET_SIZE; group += 8) {
+            int bits = 0;
+            for (int symbol = group; symbol < group + 8; symbol++) {
+                bits = (bits << 1) | (frequency(symbol) > 0 ? 1 : 0);
+            }
+            out.put((byte) bits);
+        }
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+            int frequency = frequency(symbol);
+            if (frequency > 0) {
+                // Старший бит байта означает, что за ним следуют еще 7 бит частоты
+                while (frequency >= 0x80) {
+                    out.put((byte) ((frequency & 0x7F) | 0x80));
+                    frequency >>>= 7;
+                }
+                out.put((byte) frequency);
+            }
+        }
+    }
+
+    //Метод для чтения модели, записанной методом write.
+    static FrequencyTable read(ByteBuffer in) {
+        int[] frequencies = new int[ALPHABET_SIZE];
+        byte[] present = new byte[ALPHABET_SIZE / 8];
+        in.get(present);
+        long total = 0;
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+            if ((present[symbol >>> 3] & (0x80 >>> (symbol & 7))) != 0) {
+                int frequency = 0;
+                for (int shift = 0; ; shift += 7) {
+                    int b = in.get() & 0xFF;
+                    frequency |= (b & 0x7F) << shift;
+                    if (b < 0x80 || shift >= 14) {
+                        break;
+                    }
+                }
+                frequencies[symbol] = frequency;
+                total += frequency;
+            }
+        }
+        if (total > ArithmeticCoding.MAX_TOTAL) {
+            throw new IllegalStateException("Поврежденные данные: сумма частот " + total);
+        }
+        return new FrequencyTable(frequencies);
+    }
+}
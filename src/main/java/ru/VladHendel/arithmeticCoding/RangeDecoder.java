@@ -0,0 +1,66 @@
+package ru.VladHendel.arithmeticCoding;
+
+import java.nio.ByteBuffer;
+
+import static ru.VladHendel.arithmeticCoding.RangeEncoder.MASK;
+import static ru.VladHendel.arithmeticCoding.RangeEncoder.TOP;
+
+//Класс-декодер диапазона, парный к RangeEncoder.
+class RangeDecoder {
+    // Закодированные байты (читаются по абсолютным позициям, поэтому буфер может быть direct или отображенным в память)
+    private final ByteBuffer data;
+    // Позиция следующего читаемого байта
+    private int position;
+    // Позиция за последним байтом закодированных данных
+    private final int limit;
+    // Смещение кодового значения относительно нижней границы интервала
+    private long code;
+    // Ширина интервала (32 бита без знака)
+    private long range = MASK;
+    // Ширина единицы частоты, вычисленная в getFreq и используемая в decode
+    private long r;
+
+    //Конструктор, читающий первые четыре байта потока.
+    public RangeDecoder(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    //Конструктор для закодированных данных, занимающих length байтов массива, начиная с offset.
+    public RangeDecoder(byte[] data, int offset, int length) {
+        this(ByteBuffer.wrap(data), offset, length);
+    }
+
+    //Конструктор для закодированных данных, занимающих length байтов буфера, начиная с offset.
+    public RangeDecoder(ByteBuffer data, int offset, int length) {
+        this.data = data;
+        this.position = offset;
+        this.limit = offset + length;
+        // Начальный нулевой байт кодер не записывает, поэтому значение сразу собирается из четырех байтов
+        for (int i = 0; i < 4; i++) {
+            code = ((code << 8) | next()) & MASK;
+        }
+    }
+
+    // Чтение следующего байта (за концом данных считаем нули)
+    private int next() {
+        return position < limit ? data.get(position++) & 0xFF : 0;
+    }
+
+    // Получение накопленной частоты, в интервал которой попадает текущее кодовое значение
+    public int getFreq(int total) {
+        r = range / total;
+        // Ограничиваем значение сверху: хвост интервала за total * r не принадлежит ни одному символу
+        return (int) Math.min(code / r, total - 1);
+    }
+
+    // Исключение символа с интервалом [start, start + freq) из кодового значения
+    public void decode(int start, int freq) {
+        code -= r * start;
+        range = r * freq;
+        // Нормализация, симметричная кодеру
+        while (range < TOP) {
+            code = ((code << 8) | next()) & MASK;
+            range = (range << 8) & MASK;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package ru.VladHendel.arithmeticCoding;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+//Класс-кодер диапазона (range coder) с целочисленной арифметикой фиксированной точности.
+//Вместо одной точной дроби выдает поток байтов: интервал хранится в 32 битах и нормализуется сдвигом по байту.
+//Пишет либо в собственный расширяемый буфер в куче, либо прямо в переданный буфер (например, direct или отображенный в память).
+class RangeEncoder {
+    // Наибольшая емкость собственного буфера (массив в куче не может быть длиннее)
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    // Верхняя граница нормализации: когда ширина интервала меньше 2^24, выдвигаем старший байт
+    static final long TOP = 1L << 24;
+    // Маска 32-битного беззнакового значения
+    static final long MASK = 0xFFFFFFFFL;
+
+    // Нижняя граница интервала (33 бита: 32 бита значения + бит переноса)
+    private long low;
+    // Ширина интервала (32 бита без знака)
+    private long range = MASK;
+    // Отложенный байт, который еще может измениться из-за переноса
+    private int cache;
+    // Количество отложенных байтов (cache + серия 0xFF за ним)
+    private long cacheSize = 1;
+    // Признак начального отложенного байта: интервал никогда не выходит за [0, 2^32), поэтому перенос в него невозможен,
+    // он всегда нулевой и не записывается (декодер его тоже не читает)
+    private boolean leading = true;
+    // Буфер для выходных байтов (порядок байтов big-endian)
+    private ByteBuffer buffer;
+    // Позиция выходного буфера, с которой начинается запись
+    private final int begin;
+    // Признак собственного буфера, который можно расширять
+    private final boolean growable;
+
+    public RangeEncoder() {
+        this(64);
+    }
+
+    //Конструктор с начальной емкостью собственного выходного буфера.
+    public RangeEncoder(int capacity) {
+        buffer = ByteBuffer.allocate(Math.max(capacity, 16));
+        begin = 0;
+        growable = true;
+    }
+
+    //Конструктор для записи в target с его текущей позиции; позиция самого target не меняется.
+    //Если места не хватит, запись завершится исключением BufferOverflowException.
+    public RangeEncoder(ByteBuffer target) {
+        buffer = target.duplicate().order(ByteOrder.BIG_ENDIAN);
+        begin = buffer.position();
+        growable = false;
+    }
+
+    //Метод для наибольшего размера кода length байтов: символ с частотой не меньше 1 из MAX_TOTAL стоит не больше 16 бит
+    //и менее 1/256 бита на округление ширины интервала, плюс байты, выдаваемые при сбросе.
+    static int maxCodeSize(int length) {
+        return (int) Math.min(Integer.MAX_VALUE, 2L * length + length / 256 + 16);
+    }
+
+    // Кодирование символа с интервалом [start, start + freq) из общего количества total
+    public void encode(int start, int freq, int total) {
+        // Ширина одной единицы частоты в текущем интервале
+        long r = range / total;
+        // Сдвигаем нижнюю границу на начало интервала символа
+        low += r * start;
+        // Новая ширина интервала пропорциональна частоте символа
+        range = r * freq;
+        // Нормализация: пока интервал узкий, выдвигаем старший байт
+        while (range < TOP) {
+            range = (range << 8) & MASK;
+            shiftLow();
+        }
+    }
+
+    // Выдвижение старшего байта нижней границы с обработкой переноса
+    private void shiftLow() {
+        // Если старший байт уже не может измениться (или перенос уже произошел), выдаем отложенные байты
+        if (low < 0xFF000000L || low > MASK) {
+            // Бит переноса (0 или 1)
+            int carry = (int) (low >>> 32);
+            int temp = cache;
+            do {
+                // Первый отложенный байт получает перенос, последующие 0xFF превращаются в 0x00
+                if (leading) {
+                    leading = false;
+                } else {
+                    write((temp + carry) & 0xFF);
+                }
+                temp = 0xFF;
+            } while (--cacheSize != 0);
+            // Запоминаем новый старший байт как отложенный
+            cache = (int) ((low >>> 24) & 0xFF);
+        }
+        cacheSize++;
+        // Оставляем младшие 24 бита и сдвигаем их на байт влево
+        low = (low & 0x00FFFFFFL) << 8;
+    }
+
+    // Запись байта в выходной буфер
+    private void write(int b) {
+        ensureCapacity(1);
+        buffer.put((byte) b);
+    }
+
+    // Расширение собственного буфера, чтобы поместилось еще count байтов: емкость удваивается, но не выше MAX_CAPACITY
+    private void ensureCapacity(long count) {
+        if (growable && buffer.remaining() < count) {
+            long required = buffer.position() + count;
+            if (required > MAX_CAPACITY) {
+                throw new IllegalStateException("Выходные данные не помещаются в буфер: нужно " + required + " байтов");
+            }
+            ByteBuffer larger = ByteBuffer.allocate((int) Math.min(MAX_CAPACITY, Math.max(buffer.capacity() * 2L, required)));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+    }
+
+    //Метод для записи служебных байтов между кодами: возвращает выходной буфер, в котором есть место еще для count байтов.
+    //Абсолютные позиции записанных байтов сохраняются и после расширения буфера.
+    ByteBuffer output(int count) {
+        ensureCapacity(count);
+        return buffer;
+    }
+
+    // Сброс всех значимых байтов нижней границы в выходной буфер
+    public void flush() {
+        // Любое значение из [low, low + range) декодируется верно; берем значение с наибольшим числом младших нулевых битов,
+        // чтобы хвост кода состоял из нулей, которые декодер подставляет сам и которые можно не хранить
+        long high = low + range - 1;
+        for (int bits = 32; bits > 0; bits--) {
+            long rounded = (low + (1L << bits) - 1) & -(1L << bits);
+            if (rounded <= high) {
+                low = rounded;
+                break;
+            }
+        }
+        for (int i = 0; i < 5; i++) {
+            shiftLow();
+        }
+    }
+
+    // Завершение кодирования с получением закодированных байтов собственного буфера
+    public byte[] finish() {
+        flush();
+        return toByteArray();
+    }
+
+    // Получение записанных байтов собственного буфера (после flush)
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    //Метод для заблаговременного расширения собственного буфера под еще count байтов,
+    //чтобы при кодировании больших данных буфер не копировался при каждом удвоении.
+    void reserve(long count) {
+        ensureCapacity(count);
+    }
+
+    // Емкость выходного буфера
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    // Количество записанных байтов (после flush)
+    public int size() {
+        return buffer.position() - begin;
+    }
+
+    // Запись накопленных байтов собственного буфера в поток (после flush)
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer.array(), 0, buffer.position());
+    }
+
+    // Подготовка к кодированию нового кода вслед за уже записанными байтами
+    public void restart() {
+        low = 0;
+        range = MASK;
+        cache = 0;
+        cacheSize = 1;
+        leading = true;
+    }
+
+    // Подготовка к кодированию нового сообщения без перевыделения выходного буфера
+    public void reset() {
+        restart();
+        buffer.position(begin);
+    }
+}
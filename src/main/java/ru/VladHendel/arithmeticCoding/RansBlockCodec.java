@@ -0,0 +1,132 @@
+package ru.VladHendel.arithmeticCoding;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+//Класс кодека блоков на основе rANS (range ANS) с четырьмя чередующимися состояниями.
+//Состояние - одно 31-битное число, которое кодирование байта s увеличивает примерно в total/freq(s) раз,
+//поэтому степень сжатия как у кодера диапазона, но на байт нужны одно деление при кодировании и одно умножение при декодировании.
+//Байт i кодируется состоянием i % 4: четыре цепочки вычислений независимы, и процессор выполняет их одновременно.
+//Не хранит состояния, поэтому один экземпляр можно использовать из нескольких потоков.
+public final class RansBlockCodec extends AnsBlockCodec {
+    // Имя кодека в метриках
+    static final String CODEC = "rans";
+    // Разрядность суммы частот модели
+    static final int SCALE_BITS = 14;
+    // Количество чередующихся состояний
+    private static final int STATES = 4;
+    // Нижняя граница нормализованного состояния: состояние всегда в [LOWER_BOUND, LOWER_BOUND * 256)
+    private static final int LOWER_BOUND = 1 << 23;
+
+    public RansBlockCodec() {
+        super(CODEC, SCALE_BITS);
+    }
+
+    @Override
+    int encodeCode(ByteBuffer data, int offset, int length, FrequencyTable table, ByteBuffer out, int codeStart, int codeEnd) {
+        // Граница, начиная с которой состояние перед кодированием байта нужно уменьшить, выдвинув младшие байты
+        long[] bounds = new long[FrequencyTable.ALPHABET_SIZE];
+        for (int symbol = 0; symbol < FrequencyTable.ALPHABET_SIZE; symbol++) {
+            bounds[symbol] = ((long) (LOWER_BOUND >>> SCALE_BITS) << 8) * table.frequency(symbol);
+        }
+        int[] states = new int[STATES];
+        Arrays.fill(states, LOWER_BOUND);
+        int position = codeEnd;
+        // Байты кодируются с конца, чтобы декодер получал их с начала
+        for (int i = length - 1; i >= 0; i--) {
+            int symbol = data.get(offset + i) & 0xFF;
+            int frequency = table.frequency(symbol);
+            int state = states[i & (STATES - 1)];
+            while (state >= bounds[symbol]) {
+                if (position == codeStart) {
+                    throw new BufferOverflowException();
+                }
+                out.put(--position, (byte) state);
+                state >>>= 8;
+            }
+            states[i & (STATES - 1)] = ((state / frequency) << SCALE_BITS) + state % frequency + table.start(symbol);
+        }
+        // Конечные состояния записываются перед кодом: декодер начинает с них
+        for (int k = STATES - 1; k >= 0; k--) {
+            if (position - codeStart < 4) {
+                throw new BufferOverflowException();
+            }
+            position -= 4;
+            out.putInt(position, states[k]);
+        }
+        return position;
+    }
+
+    @Override
+    void decodeCode(FrequencyTable table, ByteBuffer in, int codeStart, int codeLimit, ByteBuffer output, int outputOffset, int length) {
+        // Таблица слотов: байт, в интервал которого попадает каждое значение младших SCALE_BITS бит состояния
+        byte[] symbols = new byte[1 << SCALE_BITS];
+        int[] frequencies = new int[FrequencyTable.ALPHABET_SIZE];
+        int[] starts = new int[FrequencyTable.ALPHABET_SIZE];
+        for (int symbol = 0; symbol < FrequencyTable.ALPHABET_SIZE; symbol++) {
+            frequencies[symbol] = table.frequency(symbol);
+            starts[symbol] = table.start(symbol);
+            Arrays.fill(symbols, starts[symbol], starts[symbol] + frequencies[symbol], (byte) symbol);
+        }
+        if (codeLimit - codeStart < 4 * STATES) {
+            throw new IllegalStateException("Поврежденные данные: код короче начальных состояний");
+        }
+        int state0 = in.getInt(codeStart);
+        int state1 = in.getInt(codeStart + 4);
+        int state2 = in.getInt(codeStart + 8);
+        int state3 = in.getInt(codeStart + 12);
+        if (state0 < LOWER_BOUND || state1 < LOWER_BOUND || state2 < LOWER_BOUND || state3 < LOWER_BOUND) {
+            throw new IllegalStateException("Поврежденные данные: неверные начальные состояния");
+        }
+        int position = codeStart + 4 * STATES;
+        int mask = (1 << SCALE_BITS) - 1;
+        int i = 0;
+        // Основной цикл: по байту каждым состоянием; состояния независимы, пока не требуется нормализация
+        for (; i + STATES <= length; i += STATES) {
+            int symbol0 = symbols[state0 & mask] & 0xFF;
+            int symbol1 = symbols[state1 & mask] & 0xFF;
+            int symbol2 = symbols[state2 & mask] & 0xFF;
+            int symbol3 = symbols[state3 & mask] & 0xFF;
+            output.put(outputOffset + i, (byte) symbol0);
+            output.put(outputOffset + i + 1, (byte) symbol1);
+            output.put(outputOffset + i + 2, (byte) symbol2);
+            output.put(outputOffset + i + 3, (byte) symbol3);
+            state0 = frequencies[symbol0] * (state0 >>> SCALE_BITS) + (state0 & mask) - starts[symbol0];
+            state1 = frequencies[symbol1] * (state1 >>> SCALE_BITS) + (state1 & mask) - starts[symbol1];
+            state2 = frequencies[symbol2] * (state2 >>> SCALE_BITS) + (state2 & mask) - starts[symbol2];
+            state3 = frequencies[symbol3] * (state3 >>> SCALE_BITS) + (state3 & mask) - starts[symbol3];
+            // Нормализация в том же порядке, в котором кодер выдвигал байты (за концом кода считаем нули)
+            while (state0 < LOWER_BOUND) {
+                state0 = (state0 << 8) | (position < codeLimit ? in.get(position++) & 0xFF : 0);
+            }
+            while (state1 < LOWER_BOUND) {
+                state1 = (state1 << 8) | (position < codeLimit ? in.get(position++) & 0xFF : 0);
+            }
+            while (state2 < LOWER_BOUND) {
+                state2 = (state2 << 8) | (position < codeLimit ? in.get(position++) & 0xFF : 0);
+            }
+            while (state3 < LOWER_BOUND) {
+                state3 = (state3 << 8) | (position < codeLimit ? in.get(position++) & 0xFF : 0);
+            }
+        }
+        // Хвост блока (меньше STATES байтов) декодируется по одному
+        int[] states = {state0, state1, state2, state3};
+        for (; i < length; i++) {
+            int state = states[i & (STATES - 1)];
+            int symbol = symbols[state & mask] & 0xFF;
+            output.put(outputOffset + i, (byte) symbol);
+            state = frequencies[symbol] * (state >>> SCALE_BITS) + (state & mask) - starts[symbol];
+            while (state < LOWER_BOUND) {
+                state = (state << 8) | (position < codeLimit ? in.get(position++) & 0xFF : 0);
+            }
+            states[i & (STATES - 1)] = state;
+        }
+    }
+
+    @Override
+    long maxCodeSize(int length) {
+        // Байт с частотой не меньше 1 из 2^14 стоит не больше 14 бит, плюс конечные состояния
+        return 2L * length + 4 * STATES + 4;
+    }
+}
@@ -0,0 +1,183 @@
+package ru.VladHendel.arithmeticCoding;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+//Класс кодека блоков на основе tANS (табличный ANS, как в FSE) с двумя чередующимися состояниями.
+//Состояние - номер строки таблицы из 2^11 строк, в которой каждый байт занимает столько строк, какова его частота.
+//Декодирование байта - одно обращение к таблице и чтение нескольких битов без умножений и делений,
+//а дробная длина кода байта (-log2(freq/total) бит) сохраняется, поэтому сжатие ближе к арифметическому, чем у кодов Хаффмана.
+//Биты пишутся в обратном порядке (каждая новая порция - перед уже записанными), чтобы декодер читал их с начала.
+//Не хранит состояния, поэтому один экземпляр можно использовать из нескольких потоков.
+public final class TansBlockCodec extends AnsBlockCodec {
+    // Имя кодека в метриках
+    static final String CODEC = "tans";
+    // Разрядность размера таблицы (и суммы частот модели)
+    static final int TABLE_BITS = 11;
+    // Размер таблицы
+    private static final int TABLE_SIZE = 1 << TABLE_BITS;
+    // Количество чередующихся состояний
+    private static final int STATES = 2;
+
+    public TansBlockCodec() {
+        super(CODEC, TABLE_BITS);
+    }
+
+    // Раскладка байтов по строкам таблицы: шаг взаимно прост с размером таблицы, поэтому строки каждого байта
+    // разбросаны по всей таблице, а все строки заполняются ровно один раз
+    private static byte[] spread(FrequencyTable table) {
+        byte[] spread = new byte[TABLE_SIZE];
+        int step = (TABLE_SIZE >>> 1) + (TABLE_SIZE >>> 3) + 3;
+        int position = 0;
+        for (int symbol = 0; symbol < FrequencyTable.ALPHABET_SIZE; symbol++) {
+            for (int k = table.frequency(symbol); k > 0; k--) {
+                spread[position] = (byte) symbol;
+                position = (position + step) & (TABLE_SIZE - 1);
+            }
+        }
+        return spread;
+    }
+
+    @Override
+    int encodeCode(ByteBuffer data, int offset, int length, FrequencyTable table, ByteBuffer out, int codeStart, int codeEnd) {
+        byte[] spread = spread(table);
+        // Следующие состояния: для байта s - его строки таблицы по порядку, начиная с индекса start(s)
+        int[] nextStates = new int[TABLE_SIZE];
+        int[] cursors = new int[FrequencyTable.ALPHABET_SIZE];
+        for (int symbol = 0; symbol < FrequencyTable.ALPHABET_SIZE; symbol++) {
+            cursors[symbol] = table.start(symbol);
+        }
+        for (int row = 0; row < TABLE_SIZE; row++) {
+            nextStates[cursors[spread[row] & 0xFF]++] = TABLE_SIZE + row;
+        }
+        // Для состояния x в [TABLE_SIZE, 2 * TABLE_SIZE) количество выдаваемых битов - (x + deltaBits) >>> 16,
+        // а следующее состояние - nextStates[(x >>> bits) + deltaStates]
+        int[] deltaBits = new int[FrequencyTable.ALPHABET_SIZE];
+        int[] deltaStates = new int[FrequencyTable.ALPHABET_SIZE];
+        for (int symbol = 0; symbol < FrequencyTable.ALPHABET_SIZE; symbol++) {
+            int frequency = table.frequency(symbol);
+            if (frequency == 1) {
+                deltaBits[symbol] = (TABLE_BITS << 16) - TABLE_SIZE;
+            } else if (frequency > 1) {
+                int maxBits = TABLE_BITS - (31 - Integer.numberOfLeadingZeros(frequency - 1));
+                deltaBits[symbol] = (maxBits << 16) - (frequency << maxBits);
+            }
+            deltaStates[symbol] = table.start(symbol) - frequency;
+        }
+        int[] states = {TABLE_SIZE, TABLE_SIZE};
+        // Накопитель битов: новые биты ставятся старше уже накопленных, по 32 младших бита выгружаются с конца к началу
+        long bits = 0;
+        int count = 0;
+        int position = codeEnd;
+        for (int i = length - 1; i >= 0; i--) {
+            int symbol = data.get(offset + i) & 0xFF;
+            int state = states[i & (STATES - 1)];
+            int bitCount = (state + deltaBits[symbol]) >>> 16;
+            bits |= (long) (state & ((1 << bitCount) - 1)) << count;
+            count += bitCount;
+            states[i & (STATES - 1)] = nextStates[(state >>> bitCount) + deltaStates[symbol]];
+            if (count >= 32) {
+                if (position - codeStart < 4) {
+                    throw new BufferOverflowException();
+                }
+                position -= 4;
+                out.putInt(position, (int) bits);
+                bits >>>= 32;
+                count -= 32;
+            }
+        }
+        // Конечные состояния (без старшего бита) ставятся перед кодом: декодер читает сначала первое, затем второе
+        for (int k = STATES - 1; k >= 0; k--) {
+            bits |= (long) (states[k] - TABLE_SIZE) << count;
+            count += TABLE_BITS;
+        }
+        // Оставшиеся биты дополняются нулями спереди до целого байта; количество дополнительных битов - в первом байте кода
+        int padding = -count & 7;
+        count += padding;
+        if (position - codeStart < count / 8 + 1) {
+            throw new BufferOverflowException();
+        }
+        for (; count > 0; count -= 8) {
+            out.put(--position, (byte) bits);
+            bits >>>= 8;
+        }
+        out.put(--position, (byte) padding);
+        return position;
+    }
+
+    @Override
+    void decodeCode(FrequencyTable table, ByteBuffer in, int codeStart, int codeLimit, ByteBuffer output, int outputOffset, int length) {
+        byte[] spread = spread(table);
+        // Строка таблицы декодирования: (начало следующего состояния << 16) | (количество читаемых битов << 8) | байт
+        int[] rows = new int[TABLE_SIZE];
+        int[] counters = new int[FrequencyTable.ALPHABET_SIZE];
+        for (int symbol = 0; symbol < FrequencyTable.ALPHABET_SIZE; symbol++) {
+            counters[symbol] = table.frequency(symbol);
+        }
+        for (int row = 0; row < TABLE_SIZE; row++) {
+            int symbol = spread[row] & 0xFF;
+            int next = counters[symbol]++;
+            int bitCount = TABLE_BITS - (31 - Integer.numberOfLeadingZeros(next));
+            rows[row] = (((next << bitCount) - TABLE_SIZE) << 16) | (bitCount << 8) | symbol;
+        }
+        if (codeLimit - codeStart < 1) {
+            throw new IllegalStateException("Поврежденные данные: пустой код");
+        }
+        int padding = in.get(codeStart);
+        if (padding < 0 || padding > 7) {
+            throw new IllegalStateException("Поврежденные данные: неверное выравнивание кода " + padding);
+        }
+        // Читатель битов: available младших битов накопителя еще не прочитаны, старший из них - следующий
+        int position = codeStart + 1;
+        long bits = 0;
+        int available = 0;
+        // Пополнение накопителя до 32 и более битов (за концом кода считаем нули)
+        while (available < 32) {
+            bits = (bits << 8) | (position < codeLimit ? in.get(position++) & 0xFF : 0);
+            available += 8;
+        }
+        available -= padding;
+        int mask = TABLE_SIZE - 1;
+        int state0 = (int) (bits >>> (available - TABLE_BITS)) & mask;
+        available -= TABLE_BITS;
+        int state1 = (int) (bits >>> (available - TABLE_BITS)) & mask;
+        available -= TABLE_BITS;
+        int i = 0;
+        for (; i + STATES <= length; i += STATES) {
+            if (available < 32) {
+                if (position + 4 <= codeLimit) {
+                    bits = (bits << 32) | (in.getInt(position) & 0xFFFFFFFFL);
+                    position += 4;
+                    available += 32;
+                } else {
+                    while (available < 32) {
+                        bits = (bits << 8) | (position < codeLimit ? in.get(position++) & 0xFF : 0);
+                        available += 8;
+                    }
+                }
+            }
+            // Каждое состояние читает не больше TABLE_BITS битов, поэтому двух состояний хватает 32 битов накопителя
+            int row0 = rows[state0];
+            int row1 = rows[state1];
+            output.put(outputOffset + i, (byte) row0);
+            output.put(outputOffset + i + 1, (byte) row1);
+            int bits0 = (row0 >>> 8) & 0xFF;
+            available -= bits0;
+            state0 = (row0 >>> 16) + ((int) (bits >>> available) & ((1 << bits0) - 1));
+            int bits1 = (row1 >>> 8) & 0xFF;
+            available -= bits1;
+            state1 = (row1 >>> 16) + ((int) (bits >>> available) & ((1 << bits1) - 1));
+        }
+        if (i < length) {
+            // Нечетный последний байт декодируется первым состоянием; следующее состояние уже не нужно
+            output.put(outputOffset + i, (byte) rows[state0]);
+        }
+    }
+
+    @Override
+    long maxCodeSize(int length) {
+        // Байт с частотой не меньше 1 из 2^11 стоит не больше 11 бит, плюс конечные состояния, выравнивание
+        // и запас на выгрузку накопителя по 4 байта
+        return ((long) TABLE_BITS * length + STATES * TABLE_BITS + 7) / 8 + 1 + 4;
+    }
+}
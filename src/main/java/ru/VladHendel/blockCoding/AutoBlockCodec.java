@@ -0,0 +1,92 @@
+package ru.VladHendel.blockCoding;
+
+import ru.VladHendel.statistics.Histogram;
+
+import java.nio.ByteBuffer;
+
+//Класс кодека, выбирающего для каждого блока кодек по гистограмме байтов: без сжатия, Хаффман, tANS или кодер диапазона.
+//Размер блока каждым кодеком оценивается по гистограмме без кодирования (BlockCodec.estimatedLength).
+//Кодеки перечислены от более простого к более точному: следующий выбирается, только если экономит больше MIN_GAIN
+//относительно лучшего из предыдущих, поэтому несжимаемые блоки хранятся как есть, а Хаффман остается там, где он почти не теряет.
+//Блок: 1 байт идентификатора выбранного кодека, затем блок этого кодека.
+public final class AutoBlockCodec implements BlockCodec {
+    // Кодеки-кандидаты в порядке предпочтения
+    private static final CodecType[] CANDIDATES = {CodecType.RAW, CodecType.HUFFMAN, CodecType.TANS, CodecType.ARITHMETIC};
+    // Наименьшая доля экономии, ради которой выбирается следующий кандидат
+    private static final double MIN_GAIN = 0.01;
+
+    //Метод для выбора кодека для блока с количествами байтов counts.
+    public static CodecType choose(int[] counts) {
+        CodecType best = CANDIDATES[0];
+        long bestLength = best.codec().estimatedLength(counts);
+        for (int i = 1; i < CANDIDATES.length; i++) {
+            long length = CANDIDATES[i].codec().estimatedLength(counts);
+            if (length < bestLength * (1 - MIN_GAIN)) {
+                best = CANDIDATES[i];
+                bestLength = length;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public byte[] encode(byte[] data, int offset, int length) {
+        // Количества байтов считаются один раз: по ним выбирается кодек, и они же передаются ему для построения модели
+        int[] counts = Histogram.count(data, offset, length);
+        CodecType codec = choose(counts);
+        byte[] encoded = codec.codec().encode(data, offset, length, counts);
+        byte[] block = new byte[encoded.length + 1];
+        block[0] = (byte) codec.id();
+        System.arraycopy(encoded, 0, block, 1, encoded.length);
+        return block;
+    }
+
+    @Override
+    public int decode(byte[] block, int offset, int length, byte[] output, int outputOffset) {
+        if (length < 1) {
+            throw new IllegalStateException("Поврежденные данные: блок короче заголовка");
+        }
+        return codec(block[offset]).decode(block, offset + 1, length - 1, output, outputOffset);
+    }
+
+    @Override
+    public int encode(ByteBuffer source, ByteBuffer target) {
+        int[] counts = Histogram.count(source, source.position(), source.remaining());
+        CodecType codec = choose(counts);
+        target.put((byte) codec.id());
+        return 1 + codec.codec().encode(source, target, counts);
+    }
+
+    @Override
+    public int decode(ByteBuffer block, ByteBuffer target) {
+        if (!block.hasRemaining()) {
+            throw new IllegalStateException("Поврежденные данные: блок короче заголовка");
+        }
+        return codec(block.get()).decode(block, target);
+    }
+
+    // Кодек блока по идентификатору (только из кандидатов, чтобы поврежденный блок не вызвал сам себя)
+    private static BlockCodec codec(byte id) {
+        CodecType codec = CodecType.byId(id);
+        for (CodecType candidate : CANDIDATES) {
+            if (candidate == codec) {
+                return codec.codec();
+            }
+        }
+        throw new IllegalStateException("Поврежденные данные: неверный кодек блока " + codec.codecName());
+    }
+
+    @Override
+    public int maxEncodedLength(int length) {
+        long max = 0;
+        for (CodecType candidate : CANDIDATES) {
+            max = Math.max(max, candidate.codec().maxEncodedLength(length));
+        }
+        return (int) Math.min(Integer.MAX_VALUE, 1 + max);
+    }
+
+    @Override
+    public long estimatedLength(int[] counts) {
+        return 1 + choose(counts).codec().estimatedLength(counts);
+    }
+}
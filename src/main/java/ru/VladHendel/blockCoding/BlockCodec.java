@@ -0,0 +1,49 @@
+package ru.VladHendel.blockCoding;
+
+import java.nio.ByteBuffer;
+
+//Интерфейс кодека, сжимающего независимые блоки байтов.
+//Каждый закодированный блок содержит собственную модель, поэтому блоки можно кодировать и декодировать параллельно.
+public interface BlockCodec {
+    //Метод для кодирования length байтов из data, начиная с offset.
+    byte[] encode(byte[] data, int offset, int length);
+
+    //Метод для декодирования блока block[offset, offset + length) в output, начиная с outputOffset;
+    //возвращает количество декодированных байтов.
+    int decode(byte[] block, int offset, int length, byte[] output, int outputOffset);
+
+    //Метод для кодирования байтов source[position, limit) прямо в target с его текущей позиции без копирования в кучу;
+    //позиции обоих буферов сдвигаются на прочитанные и записанные байты, возвращается размер блока.
+    //В target должно быть не меньше maxEncodedLength(source.remaining()) свободных байтов.
+    int encode(ByteBuffer source, ByteBuffer target);
+
+    //Метод для кодирования length байтов из data, начиная с offset, по уже подсчитанным количествам байтов counts
+    //(см. Histogram), чтобы кодек со статической моделью не считал их повторно.
+    //По умолчанию количества не используются.
+    default byte[] encode(byte[] data, int offset, int length, int[] counts) {
+        return encode(data, offset, length);
+    }
+
+    //Метод для кодирования байтов source[position, limit) в target по уже подсчитанным количествам байтов counts.
+    //По умолчанию количества не используются.
+    default int encode(ByteBuffer source, ByteBuffer target, int[] counts) {
+        return encode(source, target);
+    }
+
+    //Метод для декодирования блока block[position, limit) прямо в target с его текущей позиции;
+    //позиции обоих буферов сдвигаются, возвращается количество декодированных байтов.
+    int decode(ByteBuffer block, ByteBuffer target);
+
+    //Метод для наибольшего размера блока, кодирующего length байтов.
+    int maxEncodedLength(int length);
+
+    //Метод для оценки размера блока по количествам байтов (см. Histogram) без кодирования.
+    //По умолчанию - наибольший размер; кодеки со статической моделью оценивают размер точнее.
+    default long estimatedLength(int[] counts) {
+        long length = 0;
+        for (int count : counts) {
+            length += count;
+        }
+        return maxEncodedLength((int) Math.min(Integer.MAX_VALUE, length));
+    }
+}
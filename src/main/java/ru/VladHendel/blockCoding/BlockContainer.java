@@ -0,0 +1,122 @@
+package ru.VladHendel.blockCoding;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+
+//Класс контейнера из независимо сжатых блоков.
+//Данные делятся на блоки заданного размера, каждый блок кодируется со своей моделью,
+//а блоки кодируются и декодируются параллельно в ForkJoinPool.
+//Формат: заголовок (сигнатура, кодек, размер блока, исходная длина, количество блоков),
+//индекс блоков (смещение и размер сжатого блока, длина исходного блока), затем сжатые блоки подряд.
+public final class BlockContainer {
+    // Сигнатура контейнера ("HAC1")
+    static final int MAGIC = 0x48414331;
+    // Размер блока по умолчанию
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+    // Размер заголовка: сигнатура, кодек, размер блока, исходная длина, количество блоков
+    static final int HEADER_SIZE = 4 + 1 + 4 + 8 + 4;
+    // Размер записи индекса: смещение сжатого блока, размер сжатого блока, длина исходного блока
+    static final int INDEX_ENTRY_SIZE = 8 + 4 + 4;
+
+    private BlockContainer() {
+    }
+
+    //Метод для сжатия блоками по умолчанию в общем пуле потоков.
+    public static byte[] compress(byte[] data, CodecType codec) {
+        return compress(data, codec, DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    //Метод для сжатия данных блоками blockSize, которые кодируются параллельно в pool.
+    public static byte[] compress(byte[] data, CodecType codec, int blockSize, ForkJoinPool pool) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Размер блока должен быть положительным: " + blockSize);
+        }
+        int blockCount = (int) ((data.length + (long) blockSize - 1) / blockSize);
+        byte[][] blocks = new byte[blockCount][];
+        // Каждый блок кодируется независимо
+        pool.invoke(new BlockTask(0, blockCount, block -> {
+            int offset = block * blockSize;
+            int length = Math.min(blockSize, data.length - offset);
+            blocks[block] = codec.codec().encode(data, offset, length);
+        }));
+        // Собираем заголовок, индекс и блоки
+        long compressedSize = 0;
+        for (byte[] block : blocks) {
+            compressedSize += block.length;
+        }
+        long totalSize = HEADER_SIZE + (long) INDEX_ENTRY_SIZE * blockCount + compressedSize;
+        if (totalSize > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Сжатые данные не помещаются в массив: " + totalSize + " байт");
+        }
+        ByteBuffer out = ByteBuffer.allocate((int) totalSize);
+        out.putInt(MAGIC);
+        out.put((byte) codec.id());
+        out.putInt(blockSize);
+        out.putLong(data.length);
+        out.putInt(blockCount);
+        long compressedOffset = 0;
+        for (int block = 0; block < blockCount; block++) {
+            out.putLong(compressedOffset);
+            out.putInt(blocks[block].length);
+            out.putInt(Math.min(blockSize, data.length - block * blockSize));
+            compressedOffset += blocks[block].length;
+        }
+        for (byte[] block : blocks) {
+            out.put(block);
+        }
+        return out.array();
+    }
+
+    //Метод для распаковки в общем пуле потоков.
+    public static byte[] decompress(byte[] container) {
+        return decompress(container, ForkJoinPool.commonPool());
+    }
+
+    //Метод для распаковки контейнера; блоки декодируются параллельно в pool сразу на свои места в результате.
+    public static byte[] decompress(byte[] container, ForkJoinPool pool) {
+        ByteBuffer in = ByteBuffer.wrap(container);
+        if (container.length < HEADER_SIZE || in.getInt() != MAGIC) {
+            throw new IllegalStateException("Поврежденные данные: неверная сигнатура контейнера");
+        }
+        CodecType codec = CodecType.byId(in.get());
+        in.getInt(); // размер блока нужен только для записи
+        long originalLength = in.getLong();
+        int blockCount = in.getInt();
+        long dataStart = HEADER_SIZE + (long) INDEX_ENTRY_SIZE * blockCount;
+        if (originalLength < 0 || originalLength > Integer.MAX_VALUE - 8 || blockCount < 0 || dataStart > container.length) {
+            throw new IllegalStateException("Поврежденные данные: неверный заголовок контейнера");
+        }
+        // Читаем индекс и вычисляем, куда попадет каждый блок в распакованных данных
+        int[] compressedOffsets = new int[blockCount];
+        int[] compressedLengths = new int[blockCount];
+        int[] outputOffsets = new int[blockCount];
+        int[] lengths = new int[blockCount];
+        long outputOffset = 0;
+        for (int block = 0; block < blockCount; block++) {
+            long compressedOffset = dataStart + in.getLong();
+            compressedLengths[block] = in.getInt();
+            lengths[block] = in.getInt();
+            // Смещение сравниваем с границами до сложения с длиной, чтобы огромное смещение не переполнило сумму
+            if (compressedOffset < dataStart || compressedOffset > container.length || compressedLengths[block] < 0
+                    || compressedLengths[block] > container.length - compressedOffset || lengths[block] < 0) {
+                throw new IllegalStateException("Поврежденные данные: неверная запись индекса блока " + block);
+            }
+            compressedOffsets[block] = (int) compressedOffset;
+            outputOffsets[block] = (int) outputOffset;
+            outputOffset += lengths[block];
+        }
+        if (outputOffset != originalLength) {
+            throw new IllegalStateException("Поврежденные данные: длины блоков не совпадают с исходной длиной");
+        }
+        byte[] output = new byte[(int) originalLength];
+        pool.invoke(new BlockTask(0, blockCount, block -> {
+            // Блок декодируется в окно своего места в output, поэтому поврежденный блок не может затереть соседние
+            int decoded = codec.codec().decode(ByteBuffer.wrap(container, compressedOffsets[block], compressedLengths[block]),
+                    ByteBuffer.wrap(output, outputOffsets[block], lengths[block]));
+            if (decoded != lengths[block]) {
+                throw new IllegalStateException("Поврежденные данные: блок " + block + " содержит " + decoded + " байт вместо " + lengths[block]);
+            }
+        }));
+        return output;
+    }
+}
@@ -0,0 +1,150 @@
+package ru.VladHendel.blockCoding;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static ru.VladHendel.blockCoding.BlockContainer.HEADER_SIZE;
+import static ru.VladHendel.blockCoding.BlockContainer.INDEX_ENTRY_SIZE;
+import static ru.VladHendel.blockCoding.BlockContainer.MAGIC;
+
+//Класс для сжатия и распаковки файлов в формате BlockContainer без копирования данных в кучу.
+//Исходный файл отображается в память окнами (FileChannel.map), блоки кодируются прямо из отображения
+//в переиспользуемые direct-буферы и пишутся в канал; при распаковке блоки декодируются прямо в отображенный выходной файл.
+//Поэтому размер файлов не ограничен размером массива, а память - окном отображения и буферами по числу потоков.
+public final class BlockFile {
+    // Наибольший размер окна отображения (один отображенный буфер ограничен 2 ГБ)
+    static final long WINDOW_SIZE = 1L << 30;
+
+    private BlockFile() {
+    }
+
+    //Метод для сжатия файла блоками по умолчанию в общем пуле потоков.
+    public static void compress(Path input, Path output, CodecType codec) throws IOException {
+        compress(input, output, codec, BlockContainer.DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    //Метод для сжатия файла input в output блоками blockSize, которые кодируются параллельно в pool.
+    public static void compress(Path input, Path output, CodecType codec, int blockSize, ForkJoinPool pool) throws IOException {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Размер блока должен быть положительным: " + blockSize);
+        }
+        BlockCodec blockCodec = codec.codec();
+        try (FileChannel in = FileChannel.open(input, READ);
+             FileChannel out = FileChannel.open(output, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            long length = in.size();
+            long blockCount = (length + blockSize - 1) / blockSize;
+            long dataStart = HEADER_SIZE + INDEX_ENTRY_SIZE * blockCount;
+            if (dataStart > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Слишком много блоков: " + blockCount);
+            }
+            // Заголовок и индекс пишутся в начало файла в конце, когда известны размеры сжатых блоков
+            ByteBuffer index = ByteBuffer.allocateDirect((int) dataStart);
+            index.putInt(MAGIC);
+            index.put((byte) codec.id());
+            index.putInt(blockSize);
+            index.putLong(length);
+            index.putInt((int) blockCount);
+            // Выходные буферы переиспользуются: по одному на поток пула
+            int slots = (int) Math.max(1, Math.min(pool.getParallelism(), blockCount));
+            int slotSize = blockCodec.maxEncodedLength((int) Math.min(blockSize, length));
+            ByteBuffer[] encoded = new ByteBuffer[slots];
+            for (int slot = 0; slot < slots; slot++) {
+                encoded[slot] = ByteBuffer.allocateDirect(slotSize);
+            }
+            long windowBlocks = Math.max(1, WINDOW_SIZE / blockSize);
+            long compressedOffset = 0;
+            for (long first = 0; first < blockCount; first += windowBlocks) {
+                // Окно отображения из целых блоков
+                long windowStart = first * blockSize;
+                long windowEnd = Math.min(length, (first + windowBlocks) * blockSize);
+                MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, windowStart, windowEnd - windowStart);
+                int windowBlockCount = (int) Math.min(windowBlocks, blockCount - first);
+                // Блоки окна кодируются партиями по числу буферов
+                for (int round = 0; round < windowBlockCount; round += slots) {
+                    int roundStart = round;
+                    int roundEnd = Math.min(windowBlockCount, round + slots);
+                    pool.invoke(new BlockTask(roundStart, roundEnd, block -> {
+                        int offset = (int) ((long) block * blockSize);
+                        ByteBuffer source = window.slice(offset, Math.min(blockSize, window.limit() - offset));
+                        ByteBuffer target = encoded[block - roundStart].clear();
+                        blockCodec.encode(source, target);
+                        target.flip();
+                    }));
+                    for (int block = roundStart; block < roundEnd; block++) {
+                        ByteBuffer target = encoded[block - roundStart];
+                        index.putLong(compressedOffset);
+                        index.putInt(target.remaining());
+                        index.putInt((int) Math.min(blockSize, window.limit() - (long) block * blockSize));
+                        compressedOffset += writeFully(out, target, dataStart + compressedOffset);
+                    }
+                }
+            }
+            index.flip();
+            writeFully(out, index, 0);
+        }
+    }
+
+    //Метод для распаковки файла в общем пуле потоков.
+    public static void decompress(Path input, Path output) throws IOException {
+        decompress(input, output, ForkJoinPool.commonPool());
+    }
+
+    //Метод для распаковки файла input в output; блоки декодируются параллельно в pool прямо в отображенный выходной файл.
+    public static void decompress(Path input, Path output, ForkJoinPool pool) throws IOException {
+        try (FileChannel in = FileChannel.open(input, READ);
+             FileChannel out = FileChannel.open(output, CREATE, READ, WRITE, TRUNCATE_EXISTING)) {
+            BlockIndex index = BlockIndex.read(in);
+            int blockCount = index.blockCount;
+            long[] compressedOffsets = index.compressedOffsets;
+            int[] compressedLengths = index.compressedLengths;
+            long[] outputOffsets = index.outputOffsets;
+            int[] lengths = index.lengths;
+            int first = 0;
+            while (first < blockCount) {
+                // Окно из соседних блоков, у которых и сжатые, и распакованные данные помещаются в WINDOW_SIZE
+                long sourceStart = compressedOffsets[first];
+                long sourceEnd = sourceStart + compressedLengths[first];
+                long targetStart = outputOffsets[first];
+                int last = first + 1;
+                while (last < blockCount) {
+                    long nextSourceStart = Math.min(sourceStart, compressedOffsets[last]);
+                    long nextSourceEnd = Math.max(sourceEnd, compressedOffsets[last] + compressedLengths[last]);
+                    if (nextSourceEnd - nextSourceStart > WINDOW_SIZE || outputOffsets[last] + lengths[last] - targetStart > WINDOW_SIZE) {
+                        break;
+                    }
+                    sourceStart = nextSourceStart;
+                    sourceEnd = nextSourceEnd;
+                    last++;
+                }
+                long windowSourceStart = sourceStart;
+                long windowTargetStart = targetStart;
+                MappedByteBuffer source = in.map(FileChannel.MapMode.READ_ONLY, sourceStart, sourceEnd - sourceStart);
+                MappedByteBuffer target = out.map(FileChannel.MapMode.READ_WRITE, targetStart,
+                        outputOffsets[last - 1] + lengths[last - 1] - targetStart);
+                pool.invoke(new BlockTask(first, last, block -> {
+                    ByteBuffer blockSource = source.slice((int) (compressedOffsets[block] - windowSourceStart), compressedLengths[block]);
+                    ByteBuffer blockTarget = target.slice((int) (outputOffsets[block] - windowTargetStart), lengths[block]);
+                    index.decode(block, blockSource, blockTarget);
+                }));
+                first = last;
+            }
+        }
+    }
+
+    // Запись всего содержимого буфера в канал с позиции position; возвращает количество записанных байтов
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int count = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        return count;
+    }
+}
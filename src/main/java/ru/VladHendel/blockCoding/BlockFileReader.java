@@ -0,0 +1,115 @@
+package ru.VladHendel.blockCoding;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+//Класс для чтения произвольных диапазонов исходных данных из файла, сжатого BlockFile, без распаковки всего файла.
+//Индекс читается один раз при открытии; чтение диапазона [from, to) находит покрытые блоки двоичным поиском по индексу
+//и декодирует только их: блоки целиком внутри диапазона - прямо в буфер результата, крайние - во временный буфер.
+//Чтение не меняет состояния, поэтому один экземпляр можно использовать из нескольких потоков.
+public final class BlockFileReader implements Closeable {
+    // Канал сжатого файла (позиционное отображение не зависит от позиции канала)
+    private final FileChannel channel;
+    // Заголовок и индекс блоков
+    private final BlockIndex index;
+
+    private BlockFileReader(FileChannel channel, BlockIndex index) {
+        this.channel = channel;
+        this.index = index;
+    }
+
+    //Метод для открытия сжатого файла и чтения его индекса.
+    public static BlockFileReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, READ);
+        try {
+            return new BlockFileReader(channel, BlockIndex.read(channel));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Исходная длина данных
+    public long length() {
+        return index.originalLength;
+    }
+
+    // Кодек блоков
+    public CodecType codec() {
+        return index.codec;
+    }
+
+    //Метод для чтения исходных байтов [from, to).
+    public byte[] read(long from, long to) throws IOException {
+        if (from < 0 || from > to || to > index.originalLength) {
+            throw new IndexOutOfBoundsException("Диапазон [" + from + ", " + to + ") вне данных длины " + index.originalLength);
+        }
+        if (to - from > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Диапазон не помещается в массив: " + (to - from) + " байт");
+        }
+        byte[] result = new byte[(int) (to - from)];
+        read(from, ByteBuffer.wrap(result));
+        return result;
+    }
+
+    //Метод для чтения исходных байтов, начиная с position, в target с его текущей позиции до его границы
+    //или до конца данных; позиция target сдвигается, возвращается количество прочитанных байтов.
+    public int read(long position, ByteBuffer target) throws IOException {
+        if (position < 0 || position > index.originalLength) {
+            throw new IndexOutOfBoundsException("Смещение " + position + " вне данных длины " + index.originalLength);
+        }
+        int count = (int) Math.min(target.remaining(), index.originalLength - position);
+        if (count == 0) {
+            return 0;
+        }
+        long end = position + count;
+        int first = index.blockAt(position);
+        int last = index.blockAt(end - 1);
+        // Сжатые блоки диапазона отображаются окнами не больше BlockFile.WINDOW_SIZE (обычно хватает одного окна)
+        MappedByteBuffer source = null;
+        long sourceStart = 0;
+        for (int block = first; block <= last; block++) {
+            long blockOffset = index.compressedOffsets[block];
+            int compressedLength = index.compressedLengths[block];
+            if (source == null || blockOffset < sourceStart || blockOffset + compressedLength > sourceStart + source.capacity()) {
+                sourceStart = blockOffset;
+                long sourceEnd = blockOffset + compressedLength;
+                for (int next = block + 1; next <= last; next++) {
+                    long nextEnd = index.compressedOffsets[next] + index.compressedLengths[next];
+                    if (index.compressedOffsets[next] < sourceStart || nextEnd - sourceStart > BlockFile.WINDOW_SIZE) {
+                        break;
+                    }
+                    sourceEnd = Math.max(sourceEnd, nextEnd);
+                }
+                source = channel.map(FileChannel.MapMode.READ_ONLY, sourceStart, sourceEnd - sourceStart);
+            }
+            ByteBuffer blockSource = source.slice((int) (blockOffset - sourceStart), compressedLength);
+            long blockStart = index.outputOffsets[block];
+            int blockLength = index.lengths[block];
+            if (blockStart >= position && blockStart + blockLength <= end) {
+                // Блок целиком внутри диапазона: декодируем в окно его места в target, чтобы поврежденный блок не вышел за него
+                index.decode(block, blockSource, target.slice(target.position(), blockLength));
+                target.position(target.position() + blockLength);
+            } else {
+                // Крайний блок: декодируем целиком и копируем нужную часть
+                ByteBuffer decoded = ByteBuffer.allocate(blockLength);
+                index.decode(block, blockSource, decoded);
+                int from = (int) (Math.max(position, blockStart) - blockStart);
+                int to = (int) (Math.min(end, blockStart + blockLength) - blockStart);
+                target.put(decoded.array(), from, to - from);
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,102 @@
+package ru.VladHendel.blockCoding;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import static ru.VladHendel.blockCoding.BlockContainer.HEADER_SIZE;
+import static ru.VladHendel.blockCoding.BlockContainer.INDEX_ENTRY_SIZE;
+import static ru.VladHendel.blockCoding.BlockContainer.MAGIC;
+
+//Класс прочитанного заголовка и индекса блоков сжатого файла (формат см. BlockContainer).
+//Для каждого блока хранит, где лежат его сжатые данные и какой диапазон исходных данных он содержит,
+//поэтому блок, в который попадает любое смещение исходных данных, находится двоичным поиском без чтения других блоков.
+final class BlockIndex {
+    // Кодек блоков
+    final CodecType codec;
+    // Исходная длина данных
+    final long originalLength;
+    // Количество блоков
+    final int blockCount;
+    // Смещения сжатых блоков от начала файла
+    final long[] compressedOffsets;
+    // Размеры сжатых блоков
+    final int[] compressedLengths;
+    // Смещения блоков в исходных данных
+    final long[] outputOffsets;
+    // Длины исходных блоков
+    final int[] lengths;
+
+    private BlockIndex(CodecType codec, long originalLength, int blockCount) {
+        this.codec = codec;
+        this.originalLength = originalLength;
+        this.blockCount = blockCount;
+        this.compressedOffsets = new long[blockCount];
+        this.compressedLengths = new int[blockCount];
+        this.outputOffsets = new long[blockCount];
+        this.lengths = new int[blockCount];
+    }
+
+    //Метод для чтения заголовка и индекса из начала файла с проверкой, что все блоки лежат внутри файла.
+    static BlockIndex read(FileChannel in) throws IOException {
+        long size = in.size();
+        if (size < HEADER_SIZE) {
+            throw new IllegalStateException("Поврежденные данные: неверная сигнатура контейнера");
+        }
+        ByteBuffer header = in.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        if (header.getInt() != MAGIC) {
+            throw new IllegalStateException("Поврежденные данные: неверная сигнатура контейнера");
+        }
+        CodecType codec = CodecType.byId(header.get());
+        header.getInt(); // размер блока нужен только для записи
+        long originalLength = header.getLong();
+        int blockCount = header.getInt();
+        long dataStart = HEADER_SIZE + (long) INDEX_ENTRY_SIZE * blockCount;
+        if (originalLength < 0 || blockCount < 0 || dataStart > size || dataStart > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Поврежденные данные: неверный заголовок контейнера");
+        }
+        BlockIndex index = new BlockIndex(codec, originalLength, blockCount);
+        ByteBuffer entries = in.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, dataStart - HEADER_SIZE);
+        long outputOffset = 0;
+        for (int block = 0; block < blockCount; block++) {
+            long compressedOffset = entries.getLong();
+            int compressedLength = entries.getInt();
+            int length = entries.getInt();
+            if (compressedOffset < 0 || compressedLength < 0 || length < 0
+                    || compressedOffset > size - dataStart - compressedLength) {
+                throw new IllegalStateException("Поврежденные данные: неверная запись индекса блока " + block);
+            }
+            index.compressedOffsets[block] = dataStart + compressedOffset;
+            index.compressedLengths[block] = compressedLength;
+            index.outputOffsets[block] = outputOffset;
+            index.lengths[block] = length;
+            outputOffset += length;
+        }
+        if (outputOffset != originalLength) {
+            throw new IllegalStateException("Поврежденные данные: длины блоков не совпадают с исходной длиной");
+        }
+        return index;
+    }
+
+    // Номер блока, содержащего байт исходных данных с данным смещением (0 <= position < originalLength)
+    int blockAt(long position) {
+        int found = Arrays.binarySearch(outputOffsets, position);
+        if (found < 0) {
+            return -found - 2;
+        }
+        // Пустых блоков в файлах BlockFile нет, но на всякий случай пропускаем их
+        while (lengths[found] == 0) {
+            found++;
+        }
+        return found;
+    }
+
+    // Декодирование блока из сжатых данных source в target (позиции обоих буферов сдвигаются)
+    void decode(int block, ByteBuffer source, ByteBuffer target) {
+        int decoded = codec.codec().decode(source, target);
+        if (decoded != lengths[block]) {
+            throw new IllegalStateException("Поврежденные данные: блок " + block + " содержит " + decoded + " байт вместо " + lengths[block]);
+        }
+    }
+}
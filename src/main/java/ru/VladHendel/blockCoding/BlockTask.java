@@ -0,0 +1,31 @@
+package ru.VladHendel.blockCoding;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+//Класс задачи, выполняющей действие для диапазона блоков [from, to) с рекурсивным делением пополам.
+final class BlockTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+    private final int to;
+    private final IntConsumer action;
+
+    BlockTask(int from, int to, IntConsumer action) {
+        this.from = from;
+        this.to = to;
+        this.action = action;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= 1) {
+            if (to > from) {
+                action.accept(from);
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new BlockTask(from, middle, action), new BlockTask(middle, to, action));
+    }
+}
@@ -0,0 +1,82 @@
+package ru.VladHendel.blockCoding;
+
+import ru.VladHendel.arithmeticCoding.AdaptiveArithmeticCodec;
+import ru.VladHendel.arithmeticCoding.ArithmeticBlockCodec;
+import ru.VladHendel.arithmeticCoding.RansBlockCodec;
+import ru.VladHendel.arithmeticCoding.TansBlockCodec;
+import ru.VladHendel.huffmanCoding.AdaptiveHuffmanCodec;
+import ru.VladHendel.huffmanCoding.HuffmanBlockCodec;
+
+import java.util.Locale;
+import java.util.StringJoiner;
+
+//Перечисление кодеков блоков с идентификаторами, которые записываются в заголовок контейнера.
+public enum CodecType {
+    HUFFMAN(1, new HuffmanBlockCodec()),
+    ARITHMETIC(2, new ArithmeticBlockCodec()),
+    // Адаптивная модель с контекстом из одного предыдущего байта (порядок записывается в каждый блок)
+    ADAPTIVE_ARITHMETIC(3, new AdaptiveArithmeticCodec(1)),
+    // Асимметричные системы счисления: rANS с четырьмя чередующимися состояниями и табличный tANS
+    RANS(4, new RansBlockCodec()),
+    TANS(5, new TansBlockCodec()),
+    // Код Хаффмана с четырьмя независимыми потоками битов в блоке для одновременного декодирования
+    HUFFMAN_4X(6, new HuffmanBlockCodec(true)),
+    // Код Хаффмана, периодически перестраиваемый по затухающим частотам (код не передается)
+    ADAPTIVE_HUFFMAN(7, new AdaptiveHuffmanCodec()),
+    // Без сжатия
+    RAW(8, new RawBlockCodec()),
+    // Выбор кодека для каждого блока по гистограмме байтов
+    AUTO(9, new AutoBlockCodec());
+
+    // Идентификатор кодека в заголовке контейнера
+    private final int id;
+    // Реализация кодека
+    private final BlockCodec codec;
+
+    CodecType(int id, BlockCodec codec) {
+        this.id = id;
+        this.codec = codec;
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public BlockCodec codec() {
+        return codec;
+    }
+
+    // Имя кодека для командной строки и метрик ("huffman", "adaptive-arithmetic")
+    public String codecName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    //Метод для получения имен всех кодеков через запятую (для справки командной строки).
+    public static String codecNames() {
+        StringJoiner names = new StringJoiner(", ");
+        for (CodecType type : values()) {
+            names.add(type.codecName());
+        }
+        return names.toString();
+    }
+
+    //Метод для поиска кодека по имени.
+    public static CodecType byName(String name) {
+        for (CodecType type : values()) {
+            if (type.codecName().equals(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестный кодек: " + name);
+    }
+
+    //Метод для поиска кодека по идентификатору.
+    public static CodecType byId(int id) {
+        for (CodecType type : values()) {
+            if (type.id == id) {
+                return type;
+            }
+        }
+        throw new IllegalStateException("Неизвестный кодек: " + id);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.VladHendel.blockCoding;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+//Класс кодека, хранящего блок без сжатия: блок - сами байты, его длина - длина данных.
+//Нужен для несжимаемых данных (уже сжатых, случайных), на которых энтропийные кодеры только добавляют модель.
+public final class RawBlockCodec implements BlockCodec {
+    @Override
+    public byte[] encode(byte[] data, int offset, int length) {
+        return Arrays.copyOfRange(data, offset, offset + length);
+    }
+
+    @Override
+    public int decode(byte[] block, int offset, int length, byte[] output, int outputOffset) {
+        if (length > output.length - outputOffset) {
+            throw new IllegalStateException("Поврежденные данные: неверная длина блока " + length);
+        }
+        System.arraycopy(block, offset, output, outputOffset, length);
+        return length;
+    }
+
+    @Override
+    public int encode(ByteBuffer source, ByteBuffer target) {
+        int length = source.remaining();
+        target.put(source);
+        return length;
+    }
+
+    @Override
+    public int decode(ByteBuffer block, ByteBuffer target) {
+        int length = block.remaining();
+        if (length > target.remaining()) {
+            throw new IllegalStateException("Поврежденные данные: неверная длина блока " + length);
+        }
+        target.put(block);
+        return length;
+    }
+
+    @Override
+    public int maxEncodedLength(int length) {
+        return length;
+    }
+
+    @Override
+    public long estimatedLength(int[] counts) {
+        long length = 0;
+        for (int count : counts) {
+            length += count;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,201 @@
+package ru.VladHendel.cli;
+
+import ru.VladHendel.blockCoding.BlockContainer;
+import ru.VladHendel.blockCoding.BlockFile;
+import ru.VladHendel.blockCoding.BlockFileReader;
+import ru.VladHendel.blockCoding.CodecType;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+//Класс консольной утилиты для сжатия файлов (см. BlockFile).
+//Команды: compress, decompress, extract (распаковка диапазона байтов) и bench (сжатие, распаковка и сверка во временные файлы с замером скорости).
+public final class CodingTool {
+    // Окно отображения при сверке файлов
+    private static final long COMPARE_WINDOW = 1L << 30;
+
+    private static final String USAGE = String.join("\n",
+            "Использование:",
+            "  compress   [-c кодек] [-b размер_блока] [-t потоки] <вход> <выход>",
+            "  decompress [-t потоки] <вход> <выход>",
+            "  extract    <вход> <от> <до> <выход>   (распаковка только байтов [от, до))",
+            "  bench      [-c кодек] [-b размер_блока] [-t потоки] <вход>",
+            "Кодеки: " + CodecType.codecNames() + " (по умолчанию huffman)");
+
+    // Выбранный кодек
+    private CodecType codec = CodecType.HUFFMAN;
+    // Размер блока
+    private int blockSize = BlockContainer.DEFAULT_BLOCK_SIZE;
+    // Пул потоков для кодирования блоков
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    // Позиционные аргументы (пути к файлам)
+    private final List<String> files = new ArrayList<>();
+
+    private CodingTool() {
+    }
+
+    //метод для запуска программы.
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        CodingTool tool = new CodingTool();
+        try {
+            tool.parseOptions(args);
+            switch (args[0]) {
+                case "compress" -> {
+                    tool.expectFiles(2);
+                    BlockFile.compress(tool.file(0), tool.file(1), tool.codec, tool.blockSize, tool.pool);
+                }
+                case "decompress" -> {
+                    tool.expectFiles(2);
+                    BlockFile.decompress(tool.file(0), tool.file(1), tool.pool);
+                }
+                case "extract" -> {
+                    tool.expectFiles(4);
+                    tool.extract(tool.file(0), parseOffset(tool.files.get(1)), parseOffset(tool.files.get(2)), tool.file(3));
+                }
+                case "bench" -> {
+                    tool.expectFiles(1);
+                    tool.bench(tool.file(0));
+                }
+                default -> throw new IllegalArgumentException("Неизвестная команда: " + args[0]);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("Ошибка: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // Разбор ключей после имени команды
+    private void parseOptions(String[] args) {
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "-c", "--codec" -> codec = CodecType.byName(value(args, ++i));
+                case "-b", "--block-size" -> blockSize = parsePositive(value(args, ++i));
+                case "-t", "--threads" -> pool = new ForkJoinPool(parsePositive(value(args, ++i)));
+                default -> files.add(args[i]);
+            }
+        }
+    }
+
+    // Значение ключа
+    private static String value(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Не указано значение ключа " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    // Разбор положительного числа
+    private static int parsePositive(String value) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Сообщение ниже
+        }
+        throw new IllegalArgumentException("Ожидалось положительное число: " + value);
+    }
+
+    // Разбор неотрицательного смещения
+    private static long parseOffset(String value) {
+        try {
+            long number = Long.parseLong(value);
+            if (number >= 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Сообщение ниже
+        }
+        throw new IllegalArgumentException("Ожидалось неотрицательное число: " + value);
+    }
+
+    // Проверка количества файлов
+    private void expectFiles(int count) {
+        if (files.size() != count) {
+            throw new IllegalArgumentException("Ожидалось файлов: " + count + ", указано: " + files.size());
+        }
+    }
+
+    private Path file(int index) {
+        return Paths.get(files.get(index));
+    }
+
+    // Распаковка байтов [from, to) сжатого файла в output с декодированием только покрывающих их блоков
+    private void extract(Path input, long from, long to, Path output) throws IOException {
+        try (BlockFileReader reader = BlockFileReader.open(input)) {
+            if (from > to || to > reader.length()) {
+                throw new IllegalArgumentException("Диапазон [" + from + ", " + to + ") вне данных длины " + reader.length());
+            }
+            Files.write(output, reader.read(from, to));
+        }
+    }
+
+    // Сжатие и распаковка файла во временные файлы с замером скорости и сверкой результата
+    private void bench(Path input) throws IOException {
+        Path compressed = Files.createTempFile("bench", ".hac");
+        Path decompressed = Files.createTempFile("bench", ".out");
+        try {
+            long size = Files.size(input);
+            long start = System.nanoTime();
+            BlockFile.compress(input, compressed, codec, blockSize, pool);
+            long compressTime = System.nanoTime() - start;
+            start = System.nanoTime();
+            BlockFile.decompress(compressed, decompressed, pool);
+            long decompressTime = System.nanoTime() - start;
+            long compressedSize = Files.size(compressed);
+            System.out.printf("Кодек: %s, блок: %d байт, потоков: %d%n", codec.codecName(), blockSize, pool.getParallelism());
+            System.out.printf("Размер: %d -> %d байт (%.3f)%n", size, compressedSize, size == 0 ? 0.0 : (double) compressedSize / size);
+            System.out.printf("Сжатие: %.1f мс, %.1f МБ/с%n", compressTime / 1e6, megabytesPerSecond(size, compressTime));
+            System.out.printf("Распаковка: %.1f мс, %.1f МБ/с%n", decompressTime / 1e6, megabytesPerSecond(size, decompressTime));
+            if (!sameContent(input, decompressed)) {
+                throw new IllegalStateException("распакованный файл не совпадает с исходным");
+            }
+            System.out.println("Распакованный файл совпадает с исходным");
+        } finally {
+            Files.deleteIfExists(compressed);
+            Files.deleteIfExists(decompressed);
+        }
+    }
+
+    // Скорость обработки size байтов за nanos наносекунд
+    private static double megabytesPerSecond(long size, long nanos) {
+        return size / 1e6 / Math.max(nanos, 1) * 1e9;
+    }
+
+    // Сверка содержимого файлов по отображенным в память окнам
+    private static boolean sameContent(Path first, Path second) throws IOException {
+        try (FileChannel a = FileChannel.open(first, READ); FileChannel b = FileChannel.open(second, READ)) {
+            long size = a.size();
+            if (b.size() != size) {
+                return false;
+            }
+            for (long position = 0; position < size; position += COMPARE_WINDOW) {
+                long length = Math.min(COMPARE_WINDOW, size - position);
+                MappedByteBuffer left = a.map(FileChannel.MapMode.READ_ONLY, position, length);
+                MappedByteBuffer right = b.map(FileChannel.MapMode.READ_ONLY, position, length);
+                if (left.mismatch(right) >= 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
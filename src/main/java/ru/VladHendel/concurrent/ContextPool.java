@@ -0,0 +1,60 @@
+package ru.VladHendel.concurrent;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+//Класс пула переиспользуемых контекстов кодирования (выходных буферов и т.п.) без блокировок.
+//Контексты лежат в массиве ячеек: acquire забирает контекст из занятой ячейки через CAS, release кладет его в свободную.
+//В отличие от ThreadLocal, число контекстов не растет с числом потоков, поэтому пул подходит и для тысяч виртуальных потоков:
+//одновременно кодируют не больше потоков, чем ядер, а остальные берут уже выделенные контексты.
+public final class ContextPool<T> {
+    // Размер пула по умолчанию
+    public static final int DEFAULT_SIZE = 2 * Runtime.getRuntime().availableProcessors();
+
+    // Ячейки со свободными контекстами (null - пустая ячейка)
+    private final AtomicReferenceArray<T> slots;
+    // Создание контекста, когда свободных нет
+    private final Supplier<T> factory;
+
+    //Конструктор пула не больше чем на size свободных контекстов (0 - контексты не переиспользуются).
+    public ContextPool(int size, Supplier<T> factory) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Размер пула не может быть отрицательным: " + size);
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.factory = factory;
+    }
+
+    //Метод для получения свободного контекста или создания нового, если свободных нет.
+    public T acquire() {
+        int size = slots.length();
+        if (size > 0) {
+            // Начинаем со случайной ячейки, чтобы потоки не соревновались за первые ячейки
+            int start = ThreadLocalRandom.current().nextInt(size);
+            for (int i = 0; i < size; i++) {
+                int index = start + i < size ? start + i : start + i - size;
+                T context = slots.get(index);
+                if (context != null && slots.compareAndSet(index, context, null)) {
+                    return context;
+                }
+            }
+        }
+        return factory.get();
+    }
+
+    //Метод для возврата контекста в пул; если свободных ячеек нет, контекст просто отбрасывается.
+    public void release(T context) {
+        int size = slots.length();
+        if (size == 0) {
+            return;
+        }
+        int start = ThreadLocalRandom.current().nextInt(size);
+        for (int i = 0; i < size; i++) {
+            int index = start + i < size ? start + i : start + i - size;
+            if (slots.get(index) == null && slots.compareAndSet(index, null, context)) {
+                return;
+            }
+        }
+    }
+}
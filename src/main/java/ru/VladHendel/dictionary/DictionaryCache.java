@@ -0,0 +1,87 @@
+package ru.VladHendel.dictionary;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+//Класс кэша обученных моделей по идентификатору с вытеснением давно не использованных (LRU).
+//Модели неизменяемы, поэтому полученную из кэша модель можно использовать и после ее вытеснения.
+public final class DictionaryCache {
+    // Расширение файлов моделей в каталоге
+    public static final String EXTENSION = ".model";
+
+    // Загрузка модели, отсутствующей в кэше
+    private final Function<String, DictionaryModel> loader;
+    // Модели в порядке обращения: первой вытесняется та, к которой дольше всего не обращались
+    private final Map<String, DictionaryModel> models;
+
+    //Конструктор кэша не больше чем на capacity моделей.
+    public DictionaryCache(int capacity, Function<String, DictionaryModel> loader) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Емкость кэша должна быть положительной: " + capacity);
+        }
+        this.loader = loader;
+        this.models = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, DictionaryModel> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    //Метод для создания кэша, загружающего модель id из файла id + EXTENSION в каталоге directory.
+    public static DictionaryCache forDirectory(Path directory, int capacity) {
+        return new DictionaryCache(capacity, id -> {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(directory.resolve(id + EXTENSION)))) {
+                DictionaryModel model = DictionaryModel.read(in);
+                if (!model.id().equals(id)) {
+                    throw new IOException("Файл модели " + id + " содержит модель " + model.id());
+                }
+                return model;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    //Метод для получения модели; отсутствующая модель загружается и вытесняет самую давнюю при переполнении.
+    public DictionaryModel get(String id) {
+        synchronized (models) {
+            DictionaryModel model = models.get(id);
+            if (model != null) {
+                return model;
+            }
+        }
+        // Загружаем без блокировки, чтобы медленное чтение не задерживало обращения к другим моделям
+        DictionaryModel loaded = loader.apply(id);
+        synchronized (models) {
+            DictionaryModel existing = models.putIfAbsent(id, loaded);
+            return existing != null ? existing : loaded;
+        }
+    }
+
+    //Метод для получения кодека сообщений модели id.
+    public MessageCodec codec(String id) {
+        return get(id).codec();
+    }
+
+    //Метод для добавления уже загруженной или обученной модели.
+    public void put(DictionaryModel model) {
+        synchronized (models) {
+            models.put(model.id(), model);
+        }
+    }
+
+    // Количество моделей в кэше
+    public int size() {
+        synchronized (models) {
+            return models.size();
+        }
+    }
+}
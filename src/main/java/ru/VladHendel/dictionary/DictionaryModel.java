@@ -0,0 +1,116 @@
+package ru.VladHendel.dictionary;
+
+import ru.VladHendel.arithmeticCoding.ArithmeticDictionaryCodec;
+import ru.VladHendel.blockCoding.CodecType;
+import ru.VladHendel.huffmanCoding.HuffmanDictionaryCodec;
+import ru.VladHendel.statistics.Histogram;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+//Класс заранее обученной модели для коротких сообщений (словарный режим).
+//Модель один раз строится по образцам сообщений, сохраняется и загружается по идентификатору;
+//сообщения затем кодируются без построения таблиц и без заголовка с моделью (см. MessageCodec).
+//Формат: сигнатура, идентификатор (UTF), кодек, количества 256 байтов (по 4 байта).
+public final class DictionaryModel {
+    // Сигнатура сохраненной модели ("HDM1")
+    private static final int MAGIC = 0x48444D31;
+    // Размер алфавита байтов
+    private static final int ALPHABET_SIZE = 256;
+    // Наибольшая сумма сохраняемых количеств: количества большого корпуса масштабируются
+    private static final long MAX_TOTAL = 1L << 24;
+
+    // Идентификатор модели
+    private final String id;
+    // Кодек, для которого обучена модель
+    private final CodecType codecType;
+    // Количества байтов (индекс = байт), каждое не меньше 1
+    private final int[] counts;
+    // Неизменяемый кодек сообщений, построенный по модели
+    private final MessageCodec codec;
+
+    private DictionaryModel(String id, CodecType codecType, int[] counts) {
+        this.id = id;
+        this.codecType = codecType;
+        this.counts = counts;
+        this.codec = switch (codecType) {
+            case HUFFMAN -> new HuffmanDictionaryCodec(counts);
+            case ARITHMETIC -> new ArithmeticDictionaryCodec(counts);
+            default -> throw new IllegalArgumentException("Словарный режим не поддерживается кодеком " + codecType.codecName());
+        };
+    }
+
+    //Метод для обучения модели по образцам сообщений.
+    //Каждый байт получает ненулевое количество, поэтому кодировать можно и байты, которых не было в образцах.
+    public static DictionaryModel train(String id, CodecType codecType, Iterable<byte[]> samples) {
+        long[] totals = new long[ALPHABET_SIZE];
+        long total = 0;
+        for (byte[] sample : samples) {
+            int[] sampleCounts = Histogram.count(sample, 0, sample.length);
+            for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+                totals[symbol] += sampleCounts[symbol];
+            }
+            total += sample.length;
+        }
+        // Делитель, приводящий сумму к MAX_TOTAL
+        long divisor = Math.max(1, (total + MAX_TOTAL - 1) / MAX_TOTAL);
+        int[] counts = new int[ALPHABET_SIZE];
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+            counts[symbol] = (int) (totals[symbol] / divisor) + 1;
+        }
+        return new DictionaryModel(id, codecType, counts);
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public CodecType codecType() {
+        return codecType;
+    }
+
+    //Метод для получения кодека сообщений; кодек неизменяем и может использоваться из любого числа потоков.
+    public MessageCodec codec() {
+        return codec;
+    }
+
+    //Метод для записи модели в поток.
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeUTF(id);
+        data.writeByte(codecType.id());
+        for (int count : counts) {
+            data.writeInt(count);
+        }
+        data.flush();
+    }
+
+    //Метод для чтения модели, записанной методом write.
+    public static DictionaryModel read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Поврежденные данные: неверная сигнатура модели");
+        }
+        String id = data.readUTF();
+        CodecType codecType;
+        try {
+            codecType = CodecType.byId(data.readUnsignedByte());
+        } catch (IllegalStateException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        int[] counts = new int[ALPHABET_SIZE];
+        long total = 0;
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+            counts[symbol] = data.readInt();
+            total += counts[symbol];
+            if (counts[symbol] <= 0 || total > MAX_TOTAL + ALPHABET_SIZE) {
+                throw new IOException("Поврежденные данные: неверное количество байта " + symbol);
+            }
+        }
+        return new DictionaryModel(id, codecType, counts);
+    }
+}
@@ -0,0 +1,12 @@
+package ru.VladHendel.dictionary;
+
+//Интерфейс кодека коротких сообщений с заранее обученной моделью.
+//Модель не передается в сообщении: кодирующая и декодирующая стороны загружают одну и ту же модель по ее идентификатору.
+//Реализации неизменяемы, поэтому один экземпляр можно использовать из любого числа потоков.
+public interface MessageCodec {
+    //Метод для кодирования сообщения.
+    byte[] encode(byte[] message);
+
+    //Метод для декодирования сообщения, закодированного методом encode.
+    byte[] decode(byte[] encoded);
+}
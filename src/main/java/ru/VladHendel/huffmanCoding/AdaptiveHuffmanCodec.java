@@ -0,0 +1,82 @@
+package ru.VladHendel.huffmanCoding;
+
+import ru.VladHendel.blockCoding.BlockCodec;
+import ru.VladHendel.metrics.Metrics;
+
+import java.nio.ByteBuffer;
+
+//Класс однопроходного кодека Хаффмана с адаптивной моделью (см. AdaptiveHuffmanModel).
+//Код не передается: декодер перестраивает его так же, как кодер.
+//Блок: 32 бита количества байтов, затем коды байтов.
+//Не хранит состояния, поэтому один экземпляр можно использовать из нескольких потоков.
+public final class AdaptiveHuffmanCodec implements BlockCodec {
+    // Имя кодека в метриках
+    static final String CODEC = "adaptive-huffman";
+
+    @Override
+    public byte[] encode(byte[] data, int offset, int length) {
+        BitWriter writer = new BitWriter(length / 2 + 16);
+        encode(ByteBuffer.wrap(data), offset, length, new AdaptiveHuffmanModel(), writer);
+        return writer.toByteArray();
+    }
+
+    @Override
+    public int encode(ByteBuffer source, ByteBuffer target) {
+        BitWriter writer = new BitWriter(target);
+        encode(source, source.position(), source.remaining(), new AdaptiveHuffmanModel(), writer);
+        int size = writer.size();
+        source.position(source.limit());
+        target.position(target.position() + size);
+        return size;
+    }
+
+    //Метод для кодирования length байтов из data, начиная с offset, моделью model (модель обновляется).
+    static void encode(ByteBuffer data, int offset, int length, AdaptiveHuffmanModel model, BitWriter writer) {
+        long start = System.nanoTime();
+        int sizeBefore = writer.size();
+        writer.writeBits(length, 32);
+        for (int i = offset; i < offset + length; i++) {
+            int symbol = data.get(i) & 0xFF;
+            model.code().encodeSymbol(writer, symbol);
+            model.update(symbol);
+        }
+        writer.flush();
+        Metrics.get().encoded(CODEC, length, writer.size() - sizeBefore, System.nanoTime() - start);
+    }
+
+    @Override
+    public int decode(byte[] block, int offset, int length, byte[] output, int outputOffset) {
+        return decode(ByteBuffer.wrap(block), offset, offset + length, new AdaptiveHuffmanModel(), ByteBuffer.wrap(output), outputOffset);
+    }
+
+    @Override
+    public int decode(ByteBuffer block, ByteBuffer target) {
+        int length = decode(block, block.position(), block.limit(), new AdaptiveHuffmanModel(), target, target.position());
+        block.position(block.limit());
+        target.position(target.position() + length);
+        return length;
+    }
+
+    //Метод для декодирования блока block[offset, limit) моделью model в output, начиная с outputOffset.
+    static int decode(ByteBuffer block, int offset, int limit, AdaptiveHuffmanModel model, ByteBuffer output, int outputOffset) {
+        long start = System.nanoTime();
+        BitReader reader = new BitReader(block, offset, limit);
+        int length = reader.readBits(32);
+        if (length < 0 || length > output.limit() - outputOffset) {
+            throw new IllegalStateException("Поврежденные данные: неверная длина блока " + length);
+        }
+        for (int i = 0; i < length; i++) {
+            int symbol = model.code().decodeSymbol(reader);
+            model.update(symbol);
+            output.put(outputOffset + i, (byte) symbol);
+        }
+        Metrics.get().decoded(CODEC, reader.position() - offset, length, System.nanoTime() - start);
+        return length;
+    }
+
+    @Override
+    public int maxEncodedLength(int length) {
+        // У каждого байта всегда есть код не длиннее 16 бит
+        return (int) Math.min(Integer.MAX_VALUE, 4 + (length * (long) CanonicalCode.MAX_CODE_LENGTH + 7) / 8);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.VladHendel.huffmanCoding;
+
+import java.util.Arrays;
+
+//Класс адаптивной модели для кода Хаффмана: канонический код периодически перестраивается по затухающим частотам.
+//Кодер и декодер обновляют модель одинаково после каждого байта, поэтому новый код не передается.
+//После каждой перестройки частоты уменьшаются вдвое, так что статистика старше нескольких интервалов почти забывается
+//и код следует за меняющимся распределением (скользящее окно с экспоненциальным затуханием).
+//Перестройка - построение кода по 256 частотам без объектов-узлов, поэтому занимает микросекунды и не останавливает поток.
+final class AdaptiveHuffmanModel {
+    // Интервал перестройки в начале: код быстро уходит от равномерного
+    private static final int MIN_INTERVAL = 256;
+    // Наибольший интервал перестройки (примерно половина эффективного окна)
+    private static final int MAX_INTERVAL = 1 << 12;
+
+    // Затухающие частоты байтов (не меньше 1, чтобы у каждого байта всегда был код)
+    private final int[] frequencies = new int[HuffmanBlock.ALPHABET_SIZE];
+    // Текущий код
+    private CanonicalCode code;
+    // Текущий интервал перестройки (удваивается до MAX_INTERVAL)
+    private int interval = MIN_INTERVAL;
+    // Количество байтов до следующей перестройки
+    private int remaining = MIN_INTERVAL;
+
+    //Конструктор модели с равновероятными байтами.
+    AdaptiveHuffmanModel() {
+        Arrays.fill(frequencies, 1);
+        code = CanonicalCode.fromFrequencies(frequencies);
+    }
+
+    // Текущий код
+    CanonicalCode code() {
+        return code;
+    }
+
+    // Учет закодированного (декодированного) байта
+    void update(int symbol) {
+        frequencies[symbol]++;
+        if (--remaining == 0) {
+            rebuild();
+        }
+    }
+
+    // Перестройка кода и затухание частот
+    private void rebuild() {
+        code = CanonicalCode.fromFrequencies(frequencies);
+        for (int symbol = 0; symbol < frequencies.length; symbol++) {
+            frequencies[symbol] = (frequencies[symbol] + 1) >>> 1;
+        }
+        interval = Math.min(interval * 2, MAX_INTERVAL);
+        remaining = interval;
+    }
+}
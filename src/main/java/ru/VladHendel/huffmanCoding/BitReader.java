@@ -0,0 +1,74 @@
+package ru.VladHendel.huffmanCoding;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+//Класс для чтения битов из буфера байтов (старший бит первым), парный к BitWriter.
+//Читает по абсолютным позициям, поэтому работает и с массивами, и с direct и отображенными в память буферами без копирования.
+class BitReader {
+    // Читаемые байты (порядок байтов big-endian)
+    private final ByteBuffer data;
+    // Позиция следующего байта для подкачки в буфер
+    private int position;
+    // Позиция за последним байтом данных
+    private final int limit;
+    // Буфер битов (значимы младшие bitCount бит)
+    private long bitBuffer;
+    // Количество доступных битов в буфере
+    private int bitCount;
+
+    //Конструктор, начинающий чтение с заданного байта массива.
+    public BitReader(byte[] data, int offset) {
+        this(ByteBuffer.wrap(data), offset, data.length);
+    }
+
+    //Конструктор для данных data[offset, limit).
+    public BitReader(ByteBuffer data, int offset, int limit) {
+        this.data = data.order() == ByteOrder.BIG_ENDIAN ? data : data.duplicate().order(ByteOrder.BIG_ENDIAN);
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    // Подкачка байтов, пока в буфере есть место (за концом данных подставляются нули)
+    private void refill() {
+        // Если впереди есть целое слово, дочитываем сразу столько байтов, сколько помещается
+        if (limit - position >= 8) {
+            int bits = ((63 - bitCount) >>> 3) << 3;
+            bitBuffer = (bitBuffer << bits) | (data.getLong(position) >>> (64 - bits));
+            position += bits >>> 3;
+            bitCount += bits;
+            return;
+        }
+        while (bitCount <= 56) {
+            int next = position < limit ? data.get(position) & 0xFF : 0;
+            position++;
+            bitBuffer = (bitBuffer << 8) | next;
+            bitCount += 8;
+        }
+    }
+
+    // Позиция байта, в котором находится следующий непрочитанный бит
+    public int position() {
+        return position - bitCount / 8;
+    }
+
+    // Просмотр следующих length бит (length <= 32) без их извлечения
+    public int peekBits(int length) {
+        if (bitCount < length) {
+            refill();
+        }
+        return (int) ((bitBuffer >>> (bitCount - length)) & ((1L << length) - 1));
+    }
+
+    // Пропуск length бит, ранее просмотренных через peekBits
+    public void skipBits(int length) {
+        bitCount -= length;
+    }
+
+    // Чтение length бит (length <= 32)
+    public int readBits(int length) {
+        int value = peekBits(length);
+        bitCount -= length;
+        return value;
+    }
+}
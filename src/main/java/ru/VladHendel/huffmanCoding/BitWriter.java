@@ -0,0 +1,124 @@
+package ru.VladHendel.huffmanCoding;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+//Класс для упаковки кодов переменной длины в буфер байтов.
+//Биты накапливаются в 64-битном буфере и выгружаются по 32 бита за раз (старший бит первым).
+//Пишет либо в собственный расширяемый буфер в куче, либо прямо в переданный буфер (например, direct или отображенный в память).
+class BitWriter {
+    // Наибольшая емкость собственного буфера (массив в куче не может быть длиннее)
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    // Буфер накопленных, но еще не выгруженных битов (младшие bitCount бит)
+    private long bitBuffer;
+    // Количество битов в буфере (всегда меньше 32 между вызовами)
+    private int bitCount;
+    // Выходной буфер (порядок байтов big-endian)
+    private ByteBuffer buffer;
+    // Позиция выходного буфера, с которой начинается запись
+    private final int start;
+    // Признак собственного буфера, который можно расширять
+    private final boolean growable;
+
+    public BitWriter() {
+        this(64);
+    }
+
+    //Конструктор с начальной емкостью собственного выходного буфера.
+    public BitWriter(int capacity) {
+        buffer = ByteBuffer.allocate(Math.max(capacity, 16));
+        start = 0;
+        growable = true;
+    }
+
+    //Конструктор для записи в target с его текущей позиции; позиция самого target не меняется.
+    //Если места не хватит, запись завершится исключением BufferOverflowException.
+    public BitWriter(ByteBuffer target) {
+        buffer = target.duplicate().order(ByteOrder.BIG_ENDIAN);
+        start = buffer.position();
+        growable = false;
+    }
+
+    // Запись младших length бит значения value
+    public void writeBits(long value, int length) {
+        // Длинные коды записываем двумя частями, чтобы буфер не переполнился
+        if (length > 32) {
+            writeBits(value >>> 32, length - 32);
+            length = 32;
+        }
+        bitBuffer = (bitBuffer << length) | (value & ((1L << length) - 1));
+        bitCount += length;
+        // Выгружаем 32 бита, как только они накопились
+        if (bitCount >= 32) {
+            bitCount -= 32;
+            ensureCapacity(4);
+            buffer.putInt((int) (bitBuffer >>> bitCount));
+        }
+    }
+
+    // Расширение собственного буфера, чтобы поместилось еще count байтов: емкость удваивается, но не выше MAX_CAPACITY
+    private void ensureCapacity(long count) {
+        if (growable && buffer.remaining() < count) {
+            long required = buffer.position() + count;
+            if (required > MAX_CAPACITY) {
+                throw new IllegalStateException("Выходные данные не помещаются в буфер: нужно " + required + " байтов");
+            }
+            ByteBuffer larger = ByteBuffer.allocate((int) Math.min(MAX_CAPACITY, Math.max(buffer.capacity() * 2L, required)));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+    }
+
+    // Выравнивание: дописываем остаток буфера, дополняя последний байт нулями
+    public void flush() {
+        while (bitCount > 0) {
+            int shift = bitCount - 8;
+            ensureCapacity(1);
+            buffer.put((byte) (shift >= 0 ? bitBuffer >>> shift : bitBuffer << -shift));
+            bitCount = Math.max(shift, 0);
+        }
+    }
+
+    // Запись 32-битного значения поверх уже записанных байтов, начиная с байта at (считая от начала записи; после flush)
+    void patchInt(int at, int value) {
+        buffer.putInt(start + at, value);
+    }
+
+    //Метод для заблаговременного расширения собственного буфера под еще count байтов,
+    //чтобы при кодировании больших данных буфер не копировался при каждом удвоении.
+    void reserve(long count) {
+        ensureCapacity(count);
+    }
+
+    // Емкость выходного буфера
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    // Количество записанных байтов (после flush)
+    public int size() {
+        return buffer.position() - start;
+    }
+
+    // Запись накопленных байтов собственного буфера в поток (после flush)
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer.array(), 0, buffer.position());
+    }
+
+    // Очистка для повторного использования без перевыделения выходного буфера
+    public void reset() {
+        bitBuffer = 0;
+        bitCount = 0;
+        buffer.position(start);
+    }
+
+    // Получение записанных байтов собственного буфера (с выравниванием до границы байта)
+    public byte[] toByteArray() {
+        flush();
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+}
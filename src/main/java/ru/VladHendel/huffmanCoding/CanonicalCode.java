@@ -0,0 +1,321 @@
+package ru.VladHendel.huffmanCoding;
+
+import java.util.Arrays;
+
+//Класс канонического кода Хаффмана.
+//Коды однозначно восстанавливаются по длинам кодов, поэтому в заголовок сжатых данных пишутся только длины.
+//Длины вычисляются на отсортированном массиве частот без объектов-узлов, поэтому алфавит может содержать до 2^16 символов.
+final class CanonicalCode {
+    // Максимальная длина кода (коды длины 16 нужны, чтобы алфавит из 2^16 символов всегда имел код)
+    static final int MAX_CODE_LENGTH = 16;
+    // Разрядность количества символов и разрыва между символами в заголовке
+    private static final int SYMBOL_BITS = 16;
+
+    // Длины кодов (индекс = символ, 0 - символ не встречается)
+    final int[] lengths;
+    // Канонические коды символов
+    final int[] codes;
+    // Таблица для декодирования
+    private final DecodeTable decodeTable;
+
+    //Конструктор, назначающий канонические коды по длинам кодов.
+    CanonicalCode(int[] lengths) {
+        this.lengths = lengths;
+        this.codes = new int[lengths.length];
+        // Количество кодов каждой длины
+        int[] lengthCount = new int[MAX_CODE_LENGTH + 1];
+        for (int length : lengths) {
+            if (length < 0 || length > MAX_CODE_LENGTH) {
+                throw new IllegalArgumentException("Недопустимая длина кода: " + length);
+            }
+            lengthCount[length]++;
+        }
+        lengthCount[0] = 0;
+        // Первый код каждой длины: коды одной длины идут подряд, а переход к следующей длине дописывает бит 0
+        int[] nextCode = new int[MAX_CODE_LENGTH + 1];
+        int code = 0;
+        for (int length = 1; length <= MAX_CODE_LENGTH; length++) {
+            code = (code + lengthCount[length - 1]) << 1;
+            nextCode[length] = code;
+            // Коды не должны выходить за пределы разрядности (неравенство Крафта)
+            if (nextCode[length] + lengthCount[length] > (1 << length)) {
+                throw new IllegalArgumentException("Длины кодов не образуют префиксный код");
+            }
+        }
+        // Символы одной длины получают коды в порядке возрастания
+        for (int symbol = 0; symbol < lengths.length; symbol++) {
+            if (lengths[symbol] > 0) {
+                codes[symbol] = nextCode[lengths[symbol]]++;
+            }
+        }
+        decodeTable = new DecodeTable(codes, lengths);
+    }
+
+    //Метод для построения канонического кода по частотам символов (индекс = символ).
+    static CanonicalCode fromFrequencies(int[] frequencies) {
+        return new CanonicalCode(codeLengths(frequencies));
+    }
+
+    //Метод для вычисления длин кодов по частотам символов (индекс = символ) без назначения кодов и таблицы декодирования.
+    static int[] codeLengths(int[] frequencies) {
+        if (frequencies.length > 1 << SYMBOL_BITS) {
+            throw new IllegalArgumentException("Символов больше, чем 2^" + SYMBOL_BITS + ": " + frequencies.length);
+        }
+        int[] lengths = new int[frequencies.length];
+        // Встречающиеся символы, упорядоченные по возрастанию частоты (частота в старших 32 битах, символ - в младших)
+        long[] sorted = new long[frequencies.length];
+        int n = 0;
+        for (int symbol = 0; symbol < frequencies.length; symbol++) {
+            if (frequencies[symbol] > 0) {
+                sorted[n++] = ((long) frequencies[symbol] << 32) | symbol;
+            }
+        }
+        if (n == 0) {
+            return lengths;
+        }
+        // Единственному символу назначаем код из одного бита, иначе его код был бы пустым
+        if (n == 1) {
+            lengths[(int) sorted[0]] = 1;
+            return lengths;
+        }
+        Arrays.sort(sorted, 0, n);
+        long[] weights = new long[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = sorted[i] >>> 32;
+        }
+        computeLengths(weights);
+        // Самый редкий символ получил самый длинный код; слишком длинные коды заменяем оптимальными кодами ограниченной длины
+        if (weights[0] > MAX_CODE_LENGTH) {
+            return limitLengths(frequencies, MAX_CODE_LENGTH);
+        }
+        for (int i = 0; i < n; i++) {
+            lengths[(int) sorted[i]] = (int) weights[i];
+        }
+        return lengths;
+    }
+
+    //Метод для вычисления длин кодов на месте (алгоритм Моффата-Катаянена) за линейное время.
+    //На входе - веса n >= 2 символов по возрастанию, на выходе в тех же ячейках - длины их кодов.
+    //Массив служит сразу двумя очередями: еще не объединенные листья справа и внутренние узлы, построенные слева.
+    static void computeLengths(long[] weights) {
+        int n = weights.length;
+        // Фаза 1: строим дерево; weights[next] - вес очередного внутреннего узла, затем - индекс его родителя
+        weights[0] += weights[1];
+        int root = 0;
+        int leaf = 2;
+        for (int next = 1; next < n - 1; next++) {
+            // Первый потомок: самый легкий из еще не использованного внутреннего узла и листа
+            if (leaf >= n || weights[root] < weights[leaf]) {
+                weights[next] = weights[root];
+                weights[root++] = next;
+            } else {
+                weights[next] = weights[leaf++];
+            }
+            // Второй потомок
+            if (leaf >= n || (root < next && weights[root] < weights[leaf])) {
+                weights[next] += weights[root];
+                weights[root++] = next;
+            } else {
+                weights[next] += weights[leaf++];
+            }
+        }
+        // Фаза 2: глубины внутренних узлов по индексам родителей (корень - последний построенный узел)
+        weights[n - 2] = 0;
+        for (int next = n - 3; next >= 0; next--) {
+            weights[next] = weights[(int) weights[next]] + 1;
+        }
+        // Фаза 3: глубины листьев; на каждом уровне свободные позиции, не занятые внутренними узлами, становятся листьями
+        int available = 1;
+        int used = 0;
+        int depth = 0;
+        root = n - 2;
+        int next = n - 1;
+        while (available > 0) {
+            while (root >= 0 && weights[root] == depth) {
+                used++;
+                root--;
+            }
+            while (available > used) {
+                weights[next--] = depth;
+                available--;
+            }
+            available = 2 * used;
+            depth++;
+            used = 0;
+        }
+    }
+
+    //Метод для вычисления оптимальных длин кодов не длиннее maxLength (алгоритм package-merge).
+    static int[] limitLengths(int[] frequencies, int maxLength) {
+        int[] lengths = new int[frequencies.length];
+        // Встречающиеся символы, упорядоченные по возрастанию частоты (частота в старших 32 битах)
+        long[] sorted = new long[frequencies.length];
+        int n = 0;
+        for (int symbol = 0; symbol < frequencies.length; symbol++) {
+            if (frequencies[symbol] > 0) {
+                sorted[n++] = ((long) frequencies[symbol] << 32) | symbol;
+            }
+        }
+        if (n == 0) {
+            return lengths;
+        }
+        if (n == 1) {
+            lengths[(int) sorted[0]] = 1;
+            return lengths;
+        }
+        if (n > 1 << maxLength) {
+            throw new IllegalArgumentException("Символов больше, чем кодов длины " + maxLength);
+        }
+        sorted = Arrays.copyOf(sorted, n);
+        Arrays.sort(sorted);
+        long[] leaves = new long[n];
+        for (int i = 0; i < n; i++) {
+            leaves[i] = sorted[i] >>> 32;
+        }
+        // Для каждого уровня запоминаем, какие элементы списка - листья, а какие - пакеты
+        boolean[][] isLeaf = new boolean[maxLength][];
+        // Самый глубокий уровень состоит только из листьев
+        long[] previous = leaves;
+        isLeaf[maxLength - 1] = new boolean[n];
+        Arrays.fill(isLeaf[maxLength - 1], true);
+        for (int level = maxLength - 2; level >= 0; level--) {
+            // Пакеты: попарные суммы соседних элементов более глубокого списка
+            int packages = previous.length / 2;
+            long[] current = new long[n + packages];
+            boolean[] leafFlags = new boolean[n + packages];
+            // Слияние листьев и пакетов по возрастанию веса (при равенстве лист идет первым)
+            int leaf = 0;
+            int pack = 0;
+            for (int i = 0; i < current.length; i++) {
+                long packageWeight = pack < packages ? previous[2 * pack] + previous[2 * pack + 1] : Long.MAX_VALUE;
+                if (leaf < n && leaves[leaf] <= packageWeight) {
+                    current[i] = leaves[leaf++];
+                    leafFlags[i] = true;
+                } else {
+                    current[i] = packageWeight;
+                    pack++;
+                }
+            }
+            previous = current;
+            isLeaf[level] = leafFlags;
+        }
+        // Выбираем 2n-2 самых легких элемента верхнего списка и раскрываем пакеты вниз по уровням:
+        // длина кода символа равна числу уровней, на которых его лист попал в выборку
+        int take = 2 * n - 2;
+        for (int level = 0; level < maxLength && take > 0; level++) {
+            int leafCount = 0;
+            for (int i = 0; i < take; i++) {
+                if (isLeaf[level][i]) {
+                    leafCount++;
+                }
+            }
+            // Выбранные листья - всегда самые легкие символы
+            for (int i = 0; i < leafCount; i++) {
+                lengths[(int) sorted[i]]++;
+            }
+            take = 2 * (take - leafCount);
+        }
+        return lengths;
+    }
+
+    //Метод для записи заголовка: количество символов, затем для каждого символа разрыв от предыдущего и длина кода.
+    void writeHeader(BitWriter writer) {
+        writer.writeBits(symbolCount(), SYMBOL_BITS + 1);
+        int previous = -1;
+        for (int symbol = 0; symbol < lengths.length; symbol++) {
+            if (lengths[symbol] > 0) {
+                // Подряд идущие символы кодируются одним битом 0, иначе бит 1 и разрыв
+                int gap = symbol - previous - 1;
+                if (gap == 0) {
+                    writer.writeBits(0, 1);
+                } else {
+                    writer.writeBits(1, 1);
+                    writer.writeBits(gap, SYMBOL_BITS);
+                }
+                writer.writeBits(lengths[symbol] - 1, 4);
+                previous = symbol;
+            }
+        }
+    }
+
+    //Метод для чтения заголовка и восстановления кода без построения дерева.
+    static CanonicalCode readHeader(BitReader reader) {
+        return new CanonicalCode(readLengths(reader));
+    }
+
+    //Метод для чтения длин кодов из заголовка без назначения кодов и таблицы декодирования.
+    static int[] readLengths(BitReader reader) {
+        int used = reader.readBits(SYMBOL_BITS + 1);
+        int[] symbols = new int[used];
+        int[] symbolLengths = new int[used];
+        int previous = -1;
+        for (int i = 0; i < used; i++) {
+            int gap = reader.readBits(1) == 0 ? 0 : reader.readBits(SYMBOL_BITS);
+            symbols[i] = previous + 1 + gap;
+            if (symbols[i] >= 1 << SYMBOL_BITS) {
+                throw new IllegalStateException("Поврежденные данные: неверный заголовок кода Хаффмана");
+            }
+            symbolLengths[i] = reader.readBits(4) + 1;
+            previous = symbols[i];
+        }
+        // Длины должны образовывать префиксный код (неравенство Крафта), иначе заголовок поврежден
+        long kraft = 0;
+        for (int i = 0; i < used; i++) {
+            kraft += 1L << (MAX_CODE_LENGTH - symbolLengths[i]);
+        }
+        if (kraft > 1L << MAX_CODE_LENGTH) {
+            throw new IllegalStateException("Поврежденные данные: неверный заголовок кода Хаффмана");
+        }
+        int[] lengths = new int[previous + 1];
+        for (int i = 0; i < used; i++) {
+            lengths[symbols[i]] = symbolLengths[i];
+        }
+        return lengths;
+    }
+
+    //Метод для проверки, что код имеет длины кодов other (символы за концом массива имеют длину 0).
+    boolean hasLengths(int[] other) {
+        for (int symbol = 0; symbol < Math.max(lengths.length, other.length); symbol++) {
+            int length = symbol < lengths.length ? lengths[symbol] : 0;
+            if (length != (symbol < other.length ? other[symbol] : 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Количество символов, имеющих код
+    int symbolCount() {
+        int count = 0;
+        for (int length : lengths) {
+            if (length > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Количество битов заголовка (writeHeader) и кодов символов с частотами frequencies при длинах кодов lengths
+    static long encodedBits(int[] lengths, int[] frequencies) {
+        long bits = SYMBOL_BITS + 1;
+        int previous = -1;
+        for (int symbol = 0; symbol < lengths.length; symbol++) {
+            if (lengths[symbol] > 0) {
+                bits += (symbol - previous - 1 == 0 ? 1 : 1 + SYMBOL_BITS) + 4;
+                bits += (long) frequencies[symbol] * lengths[symbol];
+                previous = symbol;
+            }
+        }
+        return bits;
+    }
+
+    // Кодирование символа
+    void encodeSymbol(BitWriter writer, int symbol) {
+        writer.writeBits(codes[symbol], lengths[symbol]);
+    }
+
+    // Декодирование символа
+    int decodeSymbol(BitReader reader) {
+        return decodeTable.decodeSymbol(reader);
+    }
+}
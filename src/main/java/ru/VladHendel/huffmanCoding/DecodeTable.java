@@ -0,0 +1,113 @@
+package ru.VladHendel.huffmanCoding;
+
+import java.util.Arrays;
+
+//Класс многоуровневой таблицы декодирования кодов Хаффмана.
+//Корневая таблица индексируется следующими ROOT_BITS битами потока и за одно обращение определяет целый символ;
+//коды длиннее корневой таблицы продолжаются в подтаблицах по SUB_BITS бит.
+class DecodeTable {
+    // Максимальная разрядность корневой таблицы
+    static final int ROOT_BITS = 10;
+    // Максимальная разрядность подтаблиц
+    static final int SUB_BITS = 6;
+
+    // Записи таблиц: лист = (символ << 6) | число_бит, ссылка = MIN_VALUE | (смещение << 5) | разрядность_подтаблицы,
+    // 0 = последовательность битов, не являющаяся кодом
+    private int[] entries;
+    // Количество занятых записей
+    private int size;
+    // Разрядность корневой таблицы
+    private final int rootBits;
+
+    //Конструктор, строящий таблицы по кодам и длинам кодов символов (индекс массива = символ).
+    public DecodeTable(int[] codes, int[] lengths) {
+        // Упорядочиваем символы по длине кода, а при равной длине - по символу (сортировка подсчетом).
+        // В таком порядке коды, выровненные по левому краю, возрастают, поэтому коды с общим префиксом идут подряд
+        int maxLength = 0;
+        int[] lengthStart = new int[CanonicalCode.MAX_CODE_LENGTH + 2];
+        for (int length : lengths) {
+            if (length > 0) {
+                lengthStart[length + 1]++;
+                maxLength = Math.max(maxLength, length);
+            }
+        }
+        for (int length = 1; length < lengthStart.length; length++) {
+            lengthStart[length] += lengthStart[length - 1];
+        }
+        int[] symbols = new int[lengthStart[lengthStart.length - 1]];
+        for (int symbol = 0; symbol < lengths.length; symbol++) {
+            if (lengths[symbol] > 0) {
+                symbols[lengthStart[lengths[symbol]]++] = symbol;
+            }
+        }
+        rootBits = Math.max(1, Math.min(maxLength, ROOT_BITS));
+        entries = new int[1 << rootBits];
+        size = entries.length;
+        build(codes, lengths, symbols, 0, symbols.length, 0, rootBits, 0);
+        entries = Arrays.copyOf(entries, size);
+    }
+
+    // Заполнение таблицы разрядности tableBits для символов symbols[from, to) с общим префиксом длины prefixLength
+    private void build(int[] codes, int[] lengths, int[] symbols, int from, int to, int prefixLength, int tableBits, int offset) {
+        int mask = (1 << tableBits) - 1;
+        int i = from;
+        while (i < to) {
+            int symbol = symbols[i];
+            // Сколько бит кода осталось после общего префикса
+            int remaining = lengths[symbol] - prefixLength;
+            if (remaining <= tableBits) {
+                // Код целиком помещается: заполняем все записи, которые начинаются с этого кода
+                int first = (codes[symbol] & ((1 << remaining) - 1)) << (tableBits - remaining);
+                int count = 1 << (tableBits - remaining);
+                Arrays.fill(entries, offset + first, offset + first + count, (symbol << 6) | remaining);
+                i++;
+                continue;
+            }
+            // Коды, не помещающиеся в эту таблицу, с одинаковым индексом записи идут подряд: для них создаем подтаблицу
+            int index = (codes[symbol] >>> (remaining - tableBits)) & mask;
+            int end = i + 1;
+            int maxRemaining = remaining;
+            while (end < to) {
+                int next = symbols[end];
+                int nextRemaining = lengths[next] - prefixLength;
+                if (nextRemaining <= tableBits || ((codes[next] >>> (nextRemaining - tableBits)) & mask) != index) {
+                    break;
+                }
+                maxRemaining = Math.max(maxRemaining, nextRemaining);
+                end++;
+            }
+            int subBits = Math.min(maxRemaining - tableBits, SUB_BITS);
+            int subOffset = allocate(1 << subBits);
+            entries[offset + index] = Integer.MIN_VALUE | (subOffset << 5) | subBits;
+            build(codes, lengths, symbols, i, end, prefixLength + tableBits, subBits, subOffset);
+            i = end;
+        }
+    }
+
+    // Выделение места под подтаблицу из count записей
+    private int allocate(int count) {
+        if (size + count > entries.length) {
+            entries = Arrays.copyOf(entries, Math.max(entries.length * 2, size + count));
+        }
+        int offset = size;
+        size += count;
+        return offset;
+    }
+
+    // Декодирование одного символа из потока битов
+    public int decodeSymbol(BitReader reader) {
+        int bits = rootBits;
+        int entry = entries[reader.peekBits(bits)];
+        // Переходим по ссылкам в подтаблицы, пока не попадем на лист
+        while (entry < 0) {
+            reader.skipBits(bits);
+            bits = entry & 31;
+            entry = entries[((entry >>> 5) & 0x3FFFFFF) + reader.peekBits(bits)];
+        }
+        if (entry == 0) {
+            throw new IllegalStateException("Поврежденные данные: неизвестный код Хаффмана");
+        }
+        reader.skipBits(entry & 63);
+        return entry >>> 6;
+    }
+}
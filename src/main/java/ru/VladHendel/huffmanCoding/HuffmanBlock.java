@@ -0,0 +1,88 @@
+package ru.VladHendel.huffmanCoding;
+
+import ru.VladHendel.metrics.Metrics;
+import ru.VladHendel.statistics.Histogram;
+
+import java.nio.ByteBuffer;
+
+//Класс для кодирования блока байтов собственным каноническим кодом Хаффмана.
+//Блок: 32 бита количества байтов, заголовок с длинами кодов, затем коды байтов.
+//Данные читаются и пишутся по абсолютным позициям буферов, поэтому подходят и массивы, и отображенные в память файлы.
+final class HuffmanBlock {
+    // Размер алфавита байтов
+    static final int ALPHABET_SIZE = 256;
+    // Имя кодека в метриках
+    static final String CODEC = "huffman";
+    // Наибольший размер заголовка кода в байтах: количество символов и на каждый символ флаг, разрыв и длина
+    static final int MAX_HEADER_SIZE = (17 + ALPHABET_SIZE * (1 + 16 + 4) + 7) / 8;
+
+    private HuffmanBlock() {
+    }
+
+    //Метод для кодирования length байтов из data, начиная с offset.
+    static void encode(ByteBuffer data, int offset, int length, BitWriter writer) {
+        // Подсчитываем частоты байтов блока
+        encode(data, offset, length, Histogram.count(data, offset, length), writer);
+    }
+
+    //Метод для кодирования length байтов из data, начиная с offset, по уже подсчитанным частотам байтов frequencies.
+    static void encode(ByteBuffer data, int offset, int length, int[] frequencies, BitWriter writer) {
+        long start = System.nanoTime();
+        // Строим код для этого блока
+        CanonicalCode code = CanonicalCode.fromFrequencies(frequencies);
+        Metrics.get().modelBuilt(CODEC, code.symbolCount(), System.nanoTime() - start);
+        encode(data, offset, length, code, writer);
+    }
+
+    //Метод для кодирования length байтов из data готовым кодом code (все байты должны иметь коды).
+    static void encode(ByteBuffer data, int offset, int length, CanonicalCode code, BitWriter writer) {
+        long start = System.nanoTime();
+        int sizeBefore = writer.size();
+        writer.writeBits(length, 32);
+        code.writeHeader(writer);
+        for (int i = offset; i < offset + length; i++) {
+            code.encodeSymbol(writer, data.get(i) & 0xFF);
+        }
+        // Блок занимает целое число байтов
+        writer.flush();
+        Metrics.get().encoded(CODEC, length, writer.size() - sizeBefore, System.nanoTime() - start);
+    }
+
+    //Метод для чтения количества байтов в блоке (без декодирования).
+    static int decodedLength(ByteBuffer block, int offset) {
+        return new BitReader(block, offset, block.limit()).readBits(32);
+    }
+
+    //Метод для наибольшего размера блока, кодирующего length байтов (коды не длиннее 16 бит).
+    static int maxEncodedLength(int length) {
+        return (int) Math.min(Integer.MAX_VALUE, 4 + MAX_HEADER_SIZE + (length * (long) CanonicalCode.MAX_CODE_LENGTH + 7) / 8);
+    }
+
+    //Метод для точного размера блока, кодирующего байты с количествами counts (нужны только длины кодов, коды не назначаются).
+    static long encodedLength(int[] counts) {
+        return (32 + CanonicalCode.encodedBits(CanonicalCode.codeLengths(counts), counts) + 7) / 8;
+    }
+
+    //Метод для декодирования блока block[offset, limit) в output, начиная с outputOffset; возвращает количество байтов.
+    static int decode(ByteBuffer block, int offset, int limit, ByteBuffer output, int outputOffset) {
+        return decode(block, offset, limit, null, output, outputOffset);
+    }
+
+    //Метод для декодирования блока готовым кодом known: если длины кодов в заголовке блока совпадают с его длинами,
+    //код (и его таблица декодирования) не строится заново; иначе (или при known == null) код восстанавливается из заголовка.
+    static int decode(ByteBuffer block, int offset, int limit, CanonicalCode known, ByteBuffer output, int outputOffset) {
+        long start = System.nanoTime();
+        BitReader reader = new BitReader(block, offset, limit);
+        int length = reader.readBits(32);
+        if (length < 0 || length > output.limit() - outputOffset) {
+            throw new IllegalStateException("Поврежденные данные: неверная длина блока " + length);
+        }
+        int[] lengths = CanonicalCode.readLengths(reader);
+        CanonicalCode code = known != null && known.hasLengths(lengths) ? known : new CanonicalCode(lengths);
+        for (int i = 0; i < length; i++) {
+            output.put(outputOffset + i, (byte) code.decodeSymbol(reader));
+        }
+        Metrics.get().decoded(CODEC, reader.position() - offset, length, System.nanoTime() - start);
+        return length;
+    }
+}
@@ -0,0 +1,90 @@
+package ru.VladHendel.huffmanCoding;
+
+import ru.VladHendel.blockCoding.BlockCodec;
+import ru.VladHendel.statistics.Histogram;
+
+import java.nio.ByteBuffer;
+
+//Класс кодека блоков на основе канонического кода Хаффмана (формат блока см. HuffmanBlock и InterleavedHuffmanBlock).
+//Не хранит состояния, поэтому один экземпляр можно использовать из нескольких потоков.
+public final class HuffmanBlockCodec implements BlockCodec {
+    // Признак блоков из четырех независимых потоков битов
+    private final boolean interleaved;
+
+    public HuffmanBlockCodec() {
+        this(false);
+    }
+
+    //Конструктор кодека: interleaved - делить блок на четыре потока битов, которые декодируются одновременно.
+    public HuffmanBlockCodec(boolean interleaved) {
+        this.interleaved = interleaved;
+    }
+
+    @Override
+    public byte[] encode(byte[] data, int offset, int length) {
+        return encode(data, offset, length, Histogram.count(data, offset, length));
+    }
+
+    @Override
+    public byte[] encode(byte[] data, int offset, int length, int[] counts) {
+        Histogram.check(counts, length);
+        BitWriter writer = new BitWriter(length / 2 + 64);
+        encode(ByteBuffer.wrap(data), offset, length, counts, writer);
+        return writer.toByteArray();
+    }
+
+    @Override
+    public int decode(byte[] block, int offset, int length, byte[] output, int outputOffset) {
+        return decode(ByteBuffer.wrap(block), offset, offset + length, ByteBuffer.wrap(output), outputOffset);
+    }
+
+    @Override
+    public int encode(ByteBuffer source, ByteBuffer target) {
+        return encode(source, target, Histogram.count(source, source.position(), source.remaining()));
+    }
+
+    @Override
+    public int encode(ByteBuffer source, ByteBuffer target, int[] counts) {
+        Histogram.check(counts, source.remaining());
+        BitWriter writer = new BitWriter(target);
+        encode(source, source.position(), source.remaining(), counts, writer);
+        int size = writer.size();
+        source.position(source.limit());
+        target.position(target.position() + size);
+        return size;
+    }
+
+    @Override
+    public int decode(ByteBuffer block, ByteBuffer target) {
+        int length = decode(block, block.position(), block.limit(), target, target.position());
+        block.position(block.limit());
+        target.position(target.position() + length);
+        return length;
+    }
+
+    // Кодирование блока с частотами байтов counts в выбранном формате
+    private void encode(ByteBuffer data, int offset, int length, int[] counts, BitWriter writer) {
+        if (interleaved) {
+            InterleavedHuffmanBlock.encode(data, offset, length, counts, writer);
+        } else {
+            HuffmanBlock.encode(data, offset, length, counts, writer);
+        }
+    }
+
+    // Декодирование блока в выбранном формате
+    private int decode(ByteBuffer block, int offset, int limit, ByteBuffer output, int outputOffset) {
+        return interleaved
+                ? InterleavedHuffmanBlock.decode(block, offset, limit, output, outputOffset)
+                : HuffmanBlock.decode(block, offset, limit, output, outputOffset);
+    }
+
+    @Override
+    public int maxEncodedLength(int length) {
+        return interleaved ? InterleavedHuffmanBlock.maxEncodedLength(length) : HuffmanBlock.maxEncodedLength(length);
+    }
+
+    @Override
+    public long estimatedLength(int[] counts) {
+        return interleaved ? InterleavedHuffmanBlock.estimatedLength(counts) : HuffmanBlock.encodedLength(counts);
+    }
+}
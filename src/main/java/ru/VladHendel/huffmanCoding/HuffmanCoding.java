@@ -1,111 +1,140 @@
 package ru.VladHendel.huffmanCoding;
 
-import java.util.*;
+import ru.VladHendel.concurrent.ContextPool;
+import ru.VladHendel.metrics.Metrics;
+import ru.VladHendel.statistics.Histogram;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 //Класс для реализации алгоритма Хаффмана.
-public class HuffmanCoding {
-    // Map для хранения частоты каждого символа
-    Map<Character, Integer> frequency = new HashMap<>();
-    // Map для хранения кодов Хаффмана для каждого символа
-    private Map<Character, String> huffmanCode = new HashMap<>();
-    // Корень дерева Хаффмана
-    HuffmanNode root;
-    //Метод для подсчета частоты каждого символа в тексте.
-    private void findFrequency(String text) {
-        // Проходим по каждому символу в тексте
-        for (char c : text.toCharArray()) {
-            // Если символ еще не встречался, инициализируем его частоту нулем
-            if (!frequency.containsKey(c)) {
-                frequency.put(c, 0);
+//Кодируются байты (текст - в UTF-8), коды назначаются канонически по длинам кодов, а в начало закодированных данных
+//пишется заголовок с длинами (формат HuffmanBlock), поэтому декодирование не зависит от экземпляра, который кодировал.
+//Экземпляр неизменяем: модель строится один раз (конструктором или через Builder), а выходные буферы берутся
+//из пула без блокировок, поэтому один экземпляр можно использовать из любого числа потоков.
+public final class HuffmanCoding {
+    // Наибольшая емкость выходного буфера, который возвращается в пул (большие буферы не удерживаются)
+    private static final int MAX_POOLED_CAPACITY = 1 << 20;
+
+    // Канонический код Хаффмана
+    private final CanonicalCode code;
+    // Пул переиспользуемых выходных буферов
+    private final ContextPool<BitWriter> writers;
+
+    //Конструктор, строящий код по частотам символов текста (в UTF-8).
+    public HuffmanCoding(String text) {
+        this(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    //Конструктор, строящий код по частотам байтов.
+    public HuffmanCoding(byte[] data) {
+        this(findFrequency(new int[HuffmanBlock.ALPHABET_SIZE], data), ContextPool.DEFAULT_SIZE);
+    }
+
+    //Конструктор по готовым частотам и размеру пула выходных буферов.
+    private HuffmanCoding(int[] frequency, int poolSize) {
+        long start = System.nanoTime();
+        // Строим канонический код с ограниченной длиной кодов
+        code = CanonicalCode.fromFrequencies(frequency);
+        Metrics.get().modelBuilt(HuffmanBlock.CODEC, code.symbolCount(), System.nanoTime() - start);
+        writers = new ContextPool<>(poolSize, BitWriter::new);
+    }
+
+    //Метод для создания построителя модели.
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    //Метод для подсчета частоты каждого байта: частоты data добавляются к frequency.
+    private static int[] findFrequency(int[] frequency, byte[] data) {
+        Histogram.count(ByteBuffer.wrap(data), 0, data.length, frequency);
+        return frequency;
+    }
+
+    //Метод для получения таблицы кодов в виде текста: по строке "байт : код" на каждый байт, имеющий код.
+    public String codeTable() {
+        StringBuilder table = new StringBuilder();
+        for (int symbol = 0; symbol < code.lengths.length; symbol++) {
+            if (code.lengths[symbol] > 0) {
+                table.append(symbol).append(" : ").append(toBinaryString(code.codes[symbol], code.lengths[symbol])).append('\n');
             }
-            // Увеличиваем частоту символа на 1
-            frequency.put(c, frequency.get(c) + 1);
         }
+        return table.toString();
     }
-    //Метод для построения дерева Хаффмана и генерации кодов для каждого символа.
-    private void findRoot(String text){
-        // Подсчитываем частоты символов в тексте
-        findFrequency(text);
-        // Создаем очередь с приоритетом для узлов дерева Хаффмана
-        PriorityQueue<HuffmanNode> queue = new PriorityQueue<>();
-        // Создаем листовые узлы для каждого символа и добавляем их в очередь
-        for(Map.Entry<Character, Integer> entry: frequency.entrySet()){
-            queue.add(new HuffmanNode(entry.getKey(), entry.getValue()));
-        }
-        // Цикл для построение дерева Хаффмана
-        while (queue.size()>1){
-            // Извлекаем два узла с наименьшей частотой
-            HuffmanNode left = queue.poll();
-            HuffmanNode right = queue.poll();
-            // Создаем новый внутренний узел с суммарной частотой
-            HuffmanNode parent = new HuffmanNode(left, right);
-            // Добавляем новый узел обратно в очередь
-            queue.add(parent);
-        }
-        // Оставшийся узел является корнем дерева
-        root = queue.poll();
-        // Создаем таблицу кодов Хаффмана
-        createTable(root, "");
-        // Выводим таблицу кодов
-        System.out.println("Таблица кодов Хаффмана:");
-        for (Map.Entry<Character, String> entry : huffmanCode.entrySet()) {
-            System.out.println( "'" + entry.getKey() + "' : " + entry.getValue());
+
+    // Представление кода в виде строки из '0' и '1' (для вывода таблицы)
+    private static String toBinaryString(int code, int length) {
+        StringBuilder bits = new StringBuilder(length);
+        for (int i = length - 1; i >= 0; i--) {
+            bits.append((code >>> i) & 1);
         }
+        return bits.toString();
     }
 
-    //Рекурсивный метод для создания кодов Хаффмана для каждого символа.
-    private void createTable(HuffmanNode node, String code){
-        if (node != null) {
-            // Если узел является листовым (символом)
-            if (node.left == null && node.right == null) {
-                // Добавляем символ и его код в таблицу кодов
-                huffmanCode.put(node.symbol, code);
+    //Метод для кодирования текста (в UTF-8) с помощью кодов Хаффмана.
+    public byte[] encode(String text){
+        return encode(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    //Метод для кодирования байтов с помощью кодов Хаффмана.
+    //Результат: 4 байта количества байтов, заголовок с длинами кодов, затем коды, упакованные побитно.
+    public byte[] encode(byte[] data){
+        // Проверяем, что для каждого байта есть код, и заодно считаем точный размер кодов в битах
+        long bits = 0;
+        for (byte b : data) {
+            if (code.lengths.length <= (b & 0xFF) || code.lengths[b & 0xFF] == 0) {
+                throw new IllegalArgumentException("Байт " + (b & 0xFF) + " отсутствует в модели");
             }
-            // Рекурсивный вызов для левого потомка с добавлением "0" к коду
-            createTable(node.left, code + "0");
-            // Рекурсивный вызов для правого потомка с добавлением "1" к коду
-            createTable(node.right, code + "1");
+            bits += code.lengths[b & 0xFF];
         }
+        // Выходной буфер из пула; после кодирования он очищается и возвращается
+        BitWriter writer = writers.acquire();
+        try {
+            // Сразу отводим место под весь блок, чтобы большой буфер не удваивался с копированием
+            writer.reserve(4 + HuffmanBlock.MAX_HEADER_SIZE + (bits + 7) / 8);
+            HuffmanBlock.encode(ByteBuffer.wrap(data), 0, data.length, code, writer);
+            return writer.toByteArray();
+        } finally {
+            writer.reset();
+            if (writer.capacity() <= MAX_POOLED_CAPACITY) {
+                writers.release(writer);
+            }
+        }
+    }
 
+    // Метод для декодирования закодированного текста (код восстанавливается из заголовка).
+    public static String decode(byte[] encoded){
+        return new String(decodeBytes(encoded), StandardCharsets.UTF_8);
     }
-    //Метод для кодирования текста с помощью кодов Хаффмана.
-    public String encode(String text){
-        // Строка для накопления кодированного текста
-        StringBuilder encodedText = new StringBuilder();
-        // Проходим по каждому символу в тексте
-        for (char c : text.toCharArray()){
-            // Добавляем соответствующий код символа к результату
-            encodedText.append(huffmanCode.get(c));
-        }
-        // Выводим закодированный текст
-        System.out.println("Закодированный текст:\n" + encodedText.toString());
-        return encodedText.toString();
-    }
-
-    // Метод для декодирования закодированного текста.
-    public String decode(String encodedText){
-        // Строка для накопления декодированного текста
-        StringBuilder decodedText = new StringBuilder();
-        // Фиксируем текущий узел как корневой
-        HuffmanNode current = root;
-        // Проходим по каждому биту в закодированном тексте
-        for (char bit : encodedText.toCharArray()){
-            // Переходим по дереву влево или вправо в зависимости от бита
-            if (bit=='0'){
-                current = current.left; //влево если '0'
-            } else if (bit == '1'){
-                current = current.right; //вправо если '1'
-            }
-            // Если достигли листового узла (символа)
-            if (current.left == null && current.right == null) {
-                // Добавляем символ к результату
-                decodedText.append(current.symbol);
-                // Возвращаемся к корню для следующего символа
-                current = root;
-            }
-            }
-        return decodedText.toString();
+
+    // Метод для декодирования закодированных байтов (код восстанавливается из заголовка).
+    public static byte[] decodeBytes(byte[] encoded){
+        return decodeBytes(encoded, null);
+    }
+
+    // Метод для декодирования текста, закодированного этим экземпляром, без повторного построения кода.
+    public String decodeWithModel(byte[] encoded){
+        return new String(decodeBytesWithModel(encoded), StandardCharsets.UTF_8);
+    }
+
+    // Метод для декодирования байтов, закодированных этим экземпляром: код и таблица декодирования берутся готовые,
+    // а заголовок только сверяется с ними (данные, закодированные другим кодом, декодируются по своему заголовку).
+    public byte[] decodeBytesWithModel(byte[] encoded){
+        return decodeBytes(encoded, code);
+    }
+
+    // Декодирование закодированных байтов готовым кодом known (null - код восстанавливается из заголовка)
+    private static byte[] decodeBytes(byte[] encoded, CanonicalCode known){
+        // Количество закодированных байтов
+        ByteBuffer block = ByteBuffer.wrap(encoded);
+        int length = HuffmanBlock.decodedLength(block, 0);
+        if (length < 0) {
+            throw new IllegalStateException("Поврежденные данные: неверная длина " + length);
         }
+        byte[] decoded = new byte[length];
+        HuffmanBlock.decode(block, 0, encoded.length, known, ByteBuffer.wrap(decoded), 0);
+        return decoded;
+    }
 
 
 
@@ -116,14 +145,15 @@ public class HuffmanCoding {
                 "— Avant tout dites-moi, comment vous allez, chère amie?  Успокойте меня, — сказал он, не изменяя голоса и тоном, в котором из-за приличия и участия просвечивало равнодушие и даже насмешка.";
         // Записываем время начала выполнения
         long startTime = System.currentTimeMillis();
-        // Создаем экземпляр класса HuffmanCoding
-        HuffmanCoding coding = new HuffmanCoding();
-        // Строим дерево Хаффмана и генерируем коды
-        coding.findRoot(text);
+        // Создаем экземпляр класса HuffmanCoding: строим код по частотам байтов текста
+        HuffmanCoding coding = HuffmanCoding.builder().sample(text).build();
+        // Выводим таблицу кодов
+        System.out.println("Таблица кодов Хаффмана:\n" + coding.codeTable());
         // Кодируем текст
-        String encoded = coding.encode(text);
+        byte[] encoded = coding.encode(text);
+        System.out.println("Закодированный текст: " + encoded.length + " байт");
         // Декодируем текст
-        String decoded = coding.decode(encoded);
+        String decoded = coding.decodeWithModel(encoded);
         // Вывод декодированного текста
         System.out.println("\nДекодированный текст:\n" + decoded);
         // Проверка корректности декодирования
@@ -139,5 +169,54 @@ public class HuffmanCoding {
         System.out.println("Время выполнения: " + executionTime + " миллисекунд.");
     }
 
-}
+    //Класс построителя неизменяемого HuffmanCoding: частоты накапливаются по образцам, код строится в build.
+    //Сам построитель не потокобезопасен.
+    public static final class Builder {
+        // Накопленные частоты байтов (индекс = байт)
+        private final int[] frequency = new int[HuffmanBlock.ALPHABET_SIZE];
+        // Размер пула выходных буферов
+        private int poolSize = ContextPool.DEFAULT_SIZE;
+
+        private Builder() {
+        }
+
+        //Метод для добавления частот байтов образца.
+        public Builder sample(byte[] data) {
+            findFrequency(frequency, data);
+            return this;
+        }
+
+        //Метод для добавления частот байтов текста (в UTF-8).
+        public Builder sample(String text) {
+            return sample(text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        //Метод для добавления готовых частот (индекс = байт).
+        public Builder frequencies(int[] counts) {
+            if (counts.length > HuffmanBlock.ALPHABET_SIZE) {
+                throw new IllegalArgumentException("Частот больше, чем байтов: " + counts.length);
+            }
+            for (int symbol = 0; symbol < counts.length; symbol++) {
+                if (counts[symbol] < 0) {
+                    throw new IllegalArgumentException("Отрицательная частота байта " + symbol);
+                }
+                frequency[symbol] += counts[symbol];
+            }
+            return this;
+        }
 
+        //Метод для задания размера пула выходных буферов (0 - буферы не переиспользуются).
+        public Builder poolSize(int poolSize) {
+            if (poolSize < 0) {
+                throw new IllegalArgumentException("Размер пула не может быть отрицательным: " + poolSize);
+            }
+            this.poolSize = poolSize;
+            return this;
+        }
+
+        //Метод для построения кода; построитель можно использовать дальше, на готовый экземпляр это не влияет.
+        public HuffmanCoding build() {
+            return new HuffmanCoding(frequency.clone(), poolSize);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package ru.VladHendel.huffmanCoding;
+
+import ru.VladHendel.dictionary.MessageCodec;
+import ru.VladHendel.metrics.Metrics;
+
+import java.util.Arrays;
+
+//Класс кодека коротких сообщений кодом Хаффмана, построенным заранее по частотам обучающего корпуса.
+//Сообщение: длина (по 7 бит в байте, старший бит - признак продолжения), затем коды байтов без заголовка с длинами.
+//Нулевые байты в конце не хранятся: за концом данных BitReader подставляет нули.
+public final class HuffmanDictionaryCodec implements MessageCodec {
+    // Имя кодека в метриках
+    static final String CODEC = "huffman-dictionary";
+    // Максимальная длина сообщения (защита от поврежденных данных)
+    private static final int MAX_LENGTH = 1 << 30;
+
+    // Канонический код, построенный по обучающему корпусу
+    private final CanonicalCode code;
+
+    //Конструктор по частотам байтов (индекс = байт); байты с нулевой частотой закодировать будет нельзя.
+    public HuffmanDictionaryCodec(int[] frequencies) {
+        long start = System.nanoTime();
+        code = CanonicalCode.fromFrequencies(frequencies);
+        Metrics.get().modelBuilt(CODEC, code.symbolCount(), System.nanoTime() - start);
+    }
+
+    @Override
+    public byte[] encode(byte[] message) {
+        if (message.length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Сообщение длиннее " + MAX_LENGTH + " байт: " + message.length);
+        }
+        long start = System.nanoTime();
+        BitWriter writer = new BitWriter(message.length + 8);
+        // Длина сообщения занимает целые байты в начале
+        int length = message.length;
+        int headerSize = 1;
+        while (length >= 0x80) {
+            writer.writeBits((length & 0x7F) | 0x80, 8);
+            length >>>= 7;
+            headerSize++;
+        }
+        writer.writeBits(length, 8);
+        for (byte b : message) {
+            int symbol = b & 0xFF;
+            if (symbol >= code.lengths.length || code.lengths[symbol] == 0) {
+                throw new IllegalArgumentException("Байт " + symbol + " отсутствует в модели");
+            }
+            code.encodeSymbol(writer, symbol);
+        }
+        byte[] encoded = writer.toByteArray();
+        // Отбрасываем нулевые байты в конце кода
+        int size = encoded.length;
+        while (size > headerSize && encoded[size - 1] == 0) {
+            size--;
+        }
+        encoded = Arrays.copyOf(encoded, size);
+        Metrics.get().encoded(CODEC, message.length, encoded.length, System.nanoTime() - start);
+        return encoded;
+    }
+
+    @Override
+    public byte[] decode(byte[] encoded) {
+        long start = System.nanoTime();
+        BitReader reader = new BitReader(encoded, 0);
+        byte[] message = new byte[readLength(reader)];
+        for (int i = 0; i < message.length; i++) {
+            message[i] = (byte) code.decodeSymbol(reader);
+        }
+        Metrics.get().decoded(CODEC, encoded.length, message.length, System.nanoTime() - start);
+        return message;
+    }
+
+    // Чтение длины сообщения: до 5 байтов, сумма в long, чтобы пятый байт не переполнил int до проверки
+    static int readLength(BitReader reader) {
+        long length = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = reader.readBits(8);
+            length |= (long) (b & 0x7F) << shift;
+            if (b < 0x80) {
+                break;
+            }
+            if (shift >= 28) {
+                throw new IllegalStateException("Поврежденные данные: неверная длина сообщения");
+            }
+        }
+        if (length > MAX_LENGTH) {
+            throw new IllegalStateException("Поврежденные данные: неверная длина сообщения " + length);
+        }
+        return (int) length;
+    }
+}
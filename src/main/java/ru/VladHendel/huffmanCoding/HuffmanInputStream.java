@@ -0,0 +1,110 @@
+package ru.VladHendel.huffmanCoding;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+//Класс потока, распаковывающего данные, записанные HuffmanOutputStream.
+//В памяти держится только один сжатый и один распакованный блок.
+public class HuffmanInputStream extends InputStream {
+    // Максимальный допустимый размер сжатого блока (защита от поврежденных данных)
+    private static final int MAX_BLOCK_SIZE = 1 << 30;
+
+    // Нижележащий поток сжатых данных
+    private final DataInputStream in;
+    // Буфер сжатого блока
+    private byte[] compressed = new byte[0];
+    // Буфер распакованного блока
+    private byte[] block = new byte[0];
+    // Позиция чтения в распакованном блоке
+    private int position;
+    // Количество байтов в распакованном блоке
+    private int blockLength;
+    // Адаптивная модель, общая для всех блоков (null - у каждого блока свой код)
+    private final AdaptiveHuffmanModel model;
+    // Признак конца сжатых данных
+    private boolean eof;
+
+    public HuffmanInputStream(InputStream in) {
+        this(in, false);
+    }
+
+    //Конструктор для потока, записанного HuffmanOutputStream в режиме adaptive.
+    public HuffmanInputStream(InputStream in, boolean adaptive) {
+        this.in = new DataInputStream(in);
+        this.model = adaptive ? new AdaptiveHuffmanModel() : null;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == blockLength && !readBlock()) {
+            return -1;
+        }
+        return block[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (position == blockLength && !readBlock()) {
+            return -1;
+        }
+        int count = Math.min(len, blockLength - position);
+        System.arraycopy(block, position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return blockLength - position;
+    }
+
+    // Чтение и распаковка следующего блока; false, если данные закончились
+    private boolean readBlock() throws IOException {
+        // Пустые блоки пропускаем
+        while (!eof) {
+            int first = in.read();
+            if (first < 0) {
+                eof = true;
+                return false;
+            }
+            int size = (first << 24) | (in.readUnsignedByte() << 16) | (in.readUnsignedShort());
+            if (size < 4 || size > MAX_BLOCK_SIZE) {
+                throw new IOException("Поврежденные данные: неверный размер блока " + size);
+            }
+            if (compressed.length < size) {
+                compressed = new byte[size];
+            }
+            in.readFully(compressed, 0, size);
+            ByteBuffer compressedBuffer = ByteBuffer.wrap(compressed, 0, size);
+            int length = HuffmanBlock.decodedLength(compressedBuffer, 0);
+            if (length < 0 || length > MAX_BLOCK_SIZE) {
+                throw new IOException("Поврежденные данные: неверная длина блока " + length);
+            }
+            if (block.length < length) {
+                block = new byte[length];
+            }
+            try {
+                blockLength = model != null
+                        ? AdaptiveHuffmanCodec.decode(compressedBuffer, 0, size, model, ByteBuffer.wrap(block), 0)
+                        : HuffmanBlock.decode(compressedBuffer, 0, size, ByteBuffer.wrap(block), 0);
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            position = 0;
+            if (blockLength > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,119 @@
+package ru.VladHendel.huffmanCoding;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+//Класс потока, сжимающего данные кодом Хаффмана по блокам фиксированного размера.
+//Каждый блок получает свой код и записывается как 4 байта длины и закодированный блок (см. HuffmanBlock),
+//поэтому память ограничена размером блока независимо от объема данных.
+//В адаптивном режиме блоки не содержат кода: одна модель (AdaptiveHuffmanModel) ведется через все блоки потока
+//и следует за медленно меняющимся распределением байтов (формат блока см. AdaptiveHuffmanCodec).
+public class HuffmanOutputStream extends FilterOutputStream {
+    // Размер блока по умолчанию
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+
+    // Буфер накапливаемого блока
+    private final byte[] block;
+    // Буфер блока для кодера
+    private final ByteBuffer blockBuffer;
+    // Количество байтов в буфере блока
+    private int blockLength;
+    // Запись битов, переиспользуемая для всех блоков
+    private final BitWriter writer;
+    // Адаптивная модель, общая для всех блоков (null - у каждого блока свой код)
+    private final AdaptiveHuffmanModel model;
+    // Признак того, что последний блок уже записан
+    private boolean finished;
+
+    public HuffmanOutputStream(OutputStream out) {
+        this(out, DEFAULT_BLOCK_SIZE);
+    }
+
+    //Конструктор с размером блока.
+    public HuffmanOutputStream(OutputStream out, int blockSize) {
+        this(out, blockSize, false);
+    }
+
+    //Конструктор с размером блока и режимом: adaptive - код перестраивается по ходу потока и не передается
+    //(читать такой поток нужно HuffmanInputStream в том же режиме).
+    public HuffmanOutputStream(OutputStream out, int blockSize, boolean adaptive) {
+        super(out);
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Размер блока должен быть положительным: " + blockSize);
+        }
+        block = new byte[blockSize];
+        blockBuffer = ByteBuffer.wrap(block);
+        writer = new BitWriter(blockSize / 2);
+        model = adaptive ? new AdaptiveHuffmanModel() : null;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        block[blockLength++] = (byte) b;
+        if (blockLength == block.length) {
+            writeBlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            // Копируем столько, сколько помещается в текущий блок
+            int count = Math.min(len, block.length - blockLength);
+            System.arraycopy(b, off, block, blockLength, count);
+            blockLength += count;
+            off += count;
+            len -= count;
+            if (blockLength == block.length) {
+                writeBlock();
+            }
+        }
+    }
+
+    // Кодирование и запись накопленного блока
+    private void writeBlock() throws IOException {
+        writer.reset();
+        if (model != null) {
+            AdaptiveHuffmanCodec.encode(blockBuffer, 0, blockLength, model, writer);
+        } else {
+            HuffmanBlock.encode(blockBuffer, 0, blockLength, writer);
+        }
+        int size = writer.size();
+        out.write(size >>> 24);
+        out.write(size >>> 16);
+        out.write(size >>> 8);
+        out.write(size);
+        writer.writeTo(out);
+        blockLength = 0;
+    }
+
+    // Проверка, что поток еще принимает данные
+    private void ensureOpen() throws IOException {
+        if (finished) {
+            throw new IOException("Поток уже завершен");
+        }
+    }
+
+    //Метод для записи последнего неполного блока без закрытия нижележащего потока.
+    public void finish() throws IOException {
+        if (!finished) {
+            if (blockLength > 0) {
+                writeBlock();
+            }
+            finished = true;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package ru.VladHendel.huffmanCoding;
+
+import ru.VladHendel.metrics.Metrics;
+import ru.VladHendel.statistics.Histogram;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+//Класс для кодирования блока байтов каноническим кодом Хаффмана в четыре независимых потока битов.
+//Границы кодов в одном потоке зависят друг от друга, поэтому обычный блок декодируется строго последовательно.
+//Здесь блок делится на четыре равные части, каждая кодируется в свой поток, а размеры потоков записываются в таблицу переходов,
+//поэтому декодер ведет четыре читателя битов в одном цикле: четыре цепочки зависимостей выполняются процессором одновременно.
+//Блок: 32 бита количества байтов, заголовок с длинами кодов (выровненный до байта), таблица переходов
+//(по 4 байта размера первых трех потоков), затем четыре потока, каждый с границы байта.
+final class InterleavedHuffmanBlock {
+    // Количество потоков
+    static final int STREAMS = 4;
+    // Имя кодека в метриках
+    static final String CODEC = "huffman-4x";
+    // Размер таблицы переходов (размер последнего потока - остаток блока)
+    private static final int JUMP_TABLE_SIZE = 4 * (STREAMS - 1);
+
+    private InterleavedHuffmanBlock() {
+    }
+
+    //Метод для кодирования length байтов из data, начиная с offset.
+    static void encode(ByteBuffer data, int offset, int length, BitWriter writer) {
+        encode(data, offset, length, Histogram.count(data, offset, length), writer);
+    }
+
+    //Метод для кодирования length байтов из data, начиная с offset, по уже подсчитанным частотам байтов frequencies.
+    static void encode(ByteBuffer data, int offset, int length, int[] frequencies, BitWriter writer) {
+        long start = System.nanoTime();
+        CanonicalCode code = CanonicalCode.fromFrequencies(frequencies);
+        long modelEnd = System.nanoTime();
+        Metrics.get().modelBuilt(CODEC, code.symbolCount(), modelEnd - start);
+        int sizeBefore = writer.size();
+        writer.writeBits(length, 32);
+        code.writeHeader(writer);
+        writer.flush();
+        // Размеры потоков известны только после кодирования, пока оставляем под них место
+        int jumpTable = writer.size();
+        for (int stream = 0; stream < STREAMS - 1; stream++) {
+            writer.writeBits(0, 32);
+        }
+        int quarter = quarter(length);
+        for (int stream = 0; stream < STREAMS; stream++) {
+            int streamStart = writer.size();
+            int from = Math.min(length, stream * quarter);
+            int to = Math.min(length, from + quarter);
+            for (int i = offset + from; i < offset + to; i++) {
+                code.encodeSymbol(writer, data.get(i) & 0xFF);
+            }
+            // Каждый поток занимает целое число байтов
+            writer.flush();
+            if (stream < STREAMS - 1) {
+                writer.patchInt(jumpTable + 4 * stream, writer.size() - streamStart);
+            }
+        }
+        Metrics.get().encoded(CODEC, length, writer.size() - sizeBefore, System.nanoTime() - modelEnd);
+    }
+
+    // Количество байтов в каждом потоке, кроме последнего (последний может быть короче)
+    private static int quarter(int length) {
+        return (int) ((length + (long) STREAMS - 1) / STREAMS);
+    }
+
+    //Метод для наибольшего размера блока, кодирующего length байтов (коды не длиннее 16 бит, каждый поток выравнивается до байта).
+    static int maxEncodedLength(int length) {
+        return (int) Math.min(Integer.MAX_VALUE, 4L + HuffmanBlock.MAX_HEADER_SIZE + JUMP_TABLE_SIZE
+                + (length * (long) CanonicalCode.MAX_CODE_LENGTH + 7) / 8 + STREAMS);
+    }
+
+    //Метод для оценки размера блока, кодирующего байты с количествами counts (выравнивание потоков - по половине байта).
+    static long estimatedLength(int[] counts) {
+        return HuffmanBlock.encodedLength(counts) + 1 + JUMP_TABLE_SIZE + STREAMS / 2;
+    }
+
+    //Метод для декодирования блока block[offset, limit) в output, начиная с outputOffset; возвращает количество байтов.
+    static int decode(ByteBuffer block, int offset, int limit, ByteBuffer output, int outputOffset) {
+        long start = System.nanoTime();
+        BitReader header = new BitReader(block, offset, limit);
+        int length = header.readBits(32);
+        if (length < 0 || length > output.limit() - outputOffset) {
+            throw new IllegalStateException("Поврежденные данные: неверная длина блока " + length);
+        }
+        CanonicalCode code = CanonicalCode.readHeader(header);
+        // Заголовок выровнен до байта, за ним таблица переходов
+        int jumpTable = header.position();
+        if (limit - jumpTable < JUMP_TABLE_SIZE) {
+            throw new IllegalStateException("Поврежденные данные: блок обрывается");
+        }
+        ByteBuffer in = block.duplicate().order(ByteOrder.BIG_ENDIAN);
+        int[] streamStarts = new int[STREAMS + 1];
+        streamStarts[0] = jumpTable + JUMP_TABLE_SIZE;
+        for (int stream = 0; stream < STREAMS - 1; stream++) {
+            int size = in.getInt(jumpTable + 4 * stream);
+            if (size < 0 || size > limit - streamStarts[stream]) {
+                throw new IllegalStateException("Поврежденные данные: неверный размер потока " + stream);
+            }
+            streamStarts[stream + 1] = streamStarts[stream] + size;
+        }
+        streamStarts[STREAMS] = limit;
+        BitReader reader0 = new BitReader(in, streamStarts[0], streamStarts[1]);
+        BitReader reader1 = new BitReader(in, streamStarts[1], streamStarts[2]);
+        BitReader reader2 = new BitReader(in, streamStarts[2], streamStarts[3]);
+        BitReader reader3 = new BitReader(in, streamStarts[3], streamStarts[4]);
+        int quarter = quarter(length);
+        // Последний поток короче остальных, если длина блока не делится на 4 (или пуст при очень коротком блоке)
+        int lastLength = Math.max(0, length - (STREAMS - 1) * quarter);
+        int output0 = outputOffset;
+        int output1 = output0 + quarter;
+        int output2 = output1 + quarter;
+        int output3 = output2 + quarter;
+        int i = 0;
+        // Основной цикл: по байту из каждого потока; читатели независимы, поэтому их декодирование перекрывается
+        for (; i < lastLength; i++) {
+            int symbol0 = code.decodeSymbol(reader0);
+            int symbol1 = code.decodeSymbol(reader1);
+            int symbol2 = code.decodeSymbol(reader2);
+            int symbol3 = code.decodeSymbol(reader3);
+            output.put(output0 + i, (byte) symbol0);
+            output.put(output1 + i, (byte) symbol1);
+            output.put(output2 + i, (byte) symbol2);
+            output.put(output3 + i, (byte) symbol3);
+        }
+        // Хвосты первых трех потоков (при коротком блоке часть потоков пуста)
+        int[] lengths = new int[STREAMS - 1];
+        for (int stream = 0; stream < STREAMS - 1; stream++) {
+            lengths[stream] = Math.max(0, Math.min(quarter, length - stream * quarter));
+        }
+        for (; i < lengths[0]; i++) {
+            output.put(output0 + i, (byte) code.decodeSymbol(reader0));
+            if (i < lengths[1]) {
+                output.put(output1 + i, (byte) code.decodeSymbol(reader1));
+            }
+            if (i < lengths[2]) {
+                output.put(output2 + i, (byte) code.decodeSymbol(reader2));
+            }
+        }
+        Metrics.get().decoded(CODEC, limit - offset, length, System.nanoTime() - start);
+        return length;
+    }
+}
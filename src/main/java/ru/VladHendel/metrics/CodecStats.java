@@ -0,0 +1,115 @@
+package ru.VladHendel.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+//Класс накопленной статистики одного кодека; счетчики обновляются без блокировок.
+public class CodecStats implements CodecStatsMBean {
+    private final LongAdder modelBuilds = new LongAdder();
+    private final LongAdder modelNanos = new LongAdder();
+    // Размер таблицы символов последней построенной модели
+    private volatile int symbolTableSize;
+    private final LongAdder encodeCalls = new LongAdder();
+    private final LongAdder encodeNanos = new LongAdder();
+    private final LongAdder encodeBytesIn = new LongAdder();
+    private final LongAdder encodeBytesOut = new LongAdder();
+    private final LongAdder decodeCalls = new LongAdder();
+    private final LongAdder decodeNanos = new LongAdder();
+    private final LongAdder decodeBytesIn = new LongAdder();
+    private final LongAdder decodeBytesOut = new LongAdder();
+
+    void modelBuilt(int symbolCount, long nanos) {
+        modelBuilds.increment();
+        modelNanos.add(nanos);
+        symbolTableSize = symbolCount;
+    }
+
+    void encoded(long bytesIn, long bytesOut, long nanos) {
+        encodeCalls.increment();
+        encodeNanos.add(nanos);
+        encodeBytesIn.add(bytesIn);
+        encodeBytesOut.add(bytesOut);
+    }
+
+    void decoded(long bytesIn, long bytesOut, long nanos) {
+        decodeCalls.increment();
+        decodeNanos.add(nanos);
+        decodeBytesIn.add(bytesIn);
+        decodeBytesOut.add(bytesOut);
+    }
+
+    // Скорость в МБ/с по количеству байтов и наносекунд
+    private static double throughput(long bytes, long nanos) {
+        return nanos == 0 ? 0 : bytes * 1000.0 / nanos;
+    }
+
+    @Override
+    public long getModelBuilds() {
+        return modelBuilds.sum();
+    }
+
+    @Override
+    public long getModelNanos() {
+        return modelNanos.sum();
+    }
+
+    @Override
+    public int getSymbolTableSize() {
+        return symbolTableSize;
+    }
+
+    @Override
+    public long getEncodeCalls() {
+        return encodeCalls.sum();
+    }
+
+    @Override
+    public long getEncodeNanos() {
+        return encodeNanos.sum();
+    }
+
+    @Override
+    public long getEncodeBytesIn() {
+        return encodeBytesIn.sum();
+    }
+
+    @Override
+    public long getEncodeBytesOut() {
+        return encodeBytesOut.sum();
+    }
+
+    @Override
+    public double getCompressionRatio() {
+        long in = encodeBytesIn.sum();
+        return in == 0 ? 0 : (double) encodeBytesOut.sum() / in;
+    }
+
+    @Override
+    public double getEncodeThroughput() {
+        return throughput(encodeBytesIn.sum(), encodeNanos.sum());
+    }
+
+    @Override
+    public long getDecodeCalls() {
+        return decodeCalls.sum();
+    }
+
+    @Override
+    public long getDecodeNanos() {
+        return decodeNanos.sum();
+    }
+
+    @Override
+    public long getDecodeBytesIn() {
+        return decodeBytesIn.sum();
+    }
+
+    @Override
+    public long getDecodeBytesOut() {
+        return decodeBytesOut.sum();
+    }
+
+    @Override
+    public double getDecodeThroughput() {
+        return throughput(decodeBytesOut.sum(), decodeNanos.sum());
+    }
+}
@@ -0,0 +1,35 @@
+package ru.VladHendel.metrics;
+
+//Интерфейс JMX-бина со статистикой одного кодека.
+public interface CodecStatsMBean {
+    long getModelBuilds();
+
+    long getModelNanos();
+
+    int getSymbolTableSize();
+
+    long getEncodeCalls();
+
+    long getEncodeNanos();
+
+    long getEncodeBytesIn();
+
+    long getEncodeBytesOut();
+
+    // Отношение размера сжатых данных к исходным
+    double getCompressionRatio();
+
+    // Скорость кодирования, МБ/с
+    double getEncodeThroughput();
+
+    long getDecodeCalls();
+
+    long getDecodeNanos();
+
+    long getDecodeBytesIn();
+
+    long getDecodeBytesOut();
+
+    // Скорость декодирования (по распакованным данным), МБ/с
+    double getDecodeThroughput();
+}
@@ -0,0 +1,22 @@
+package ru.VladHendel.metrics;
+
+//Интерфейс для сбора метрик кодеков: время фаз (построение модели, кодирование, декодирование),
+//объемы данных на входе и выходе и размер таблицы символов.
+//Все методы по умолчанию ничего не делают; реализация должна быть потокобезопасной.
+public interface CodingMetrics {
+    // Реализация, которая ничего не собирает (используется по умолчанию)
+    CodingMetrics NOOP = new CodingMetrics() {
+    };
+
+    //Метод, вызываемый после построения модели: symbolCount - количество символов в таблице.
+    default void modelBuilt(String codec, int symbolCount, long nanos) {
+    }
+
+    //Метод, вызываемый после кодирования bytesIn исходных байтов в bytesOut сжатых.
+    default void encoded(String codec, long bytesIn, long bytesOut, long nanos) {
+    }
+
+    //Метод, вызываемый после декодирования bytesIn сжатых байтов в bytesOut исходных.
+    default void decoded(String codec, long bytesIn, long bytesOut, long nanos) {
+    }
+}
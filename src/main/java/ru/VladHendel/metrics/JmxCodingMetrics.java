@@ -0,0 +1,68 @@
+package ru.VladHendel.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Класс метрик, публикующий статистику каждого кодека как JMX-бин
+//ru.VladHendel:type=CodingMetrics,codec=<имя кодека> (откуда ее может забирать, например, JMX-экспортер Prometheus).
+public class JmxCodingMetrics implements CodingMetrics {
+    // Домен имен JMX-бинов
+    static final String DOMAIN = "ru.VladHendel";
+
+    // JMX-сервер, в котором регистрируются бины
+    private final MBeanServer server;
+    // Статистика по кодекам
+    private final Map<String, CodecStats> stats = new ConcurrentHashMap<>();
+
+    public JmxCodingMetrics() {
+        this(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    //Конструктор с заданным JMX-сервером.
+    public JmxCodingMetrics(MBeanServer server) {
+        this.server = server;
+    }
+
+    //Метод для получения статистики кодека (бин регистрируется при первом обращении).
+    public CodecStats stats(String codec) {
+        return stats.computeIfAbsent(codec, this::register);
+    }
+
+    // Создание и регистрация бина статистики кодека
+    private CodecStats register(String codec) {
+        CodecStats codecStats = new CodecStats();
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":type=CodingMetrics,codec=" + codec);
+            try {
+                server.registerMBean(codecStats, name);
+            } catch (InstanceAlreadyExistsException e) {
+                // Бин от предыдущего экземпляра метрик заменяем новым
+                server.unregisterMBean(name);
+                server.registerMBean(codecStats, name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Не удалось зарегистрировать JMX-бин для кодека " + codec, e);
+        }
+        return codecStats;
+    }
+
+    @Override
+    public void modelBuilt(String codec, int symbolCount, long nanos) {
+        stats(codec).modelBuilt(symbolCount, nanos);
+    }
+
+    @Override
+    public void encoded(String codec, long bytesIn, long bytesOut, long nanos) {
+        stats(codec).encoded(bytesIn, bytesOut, nanos);
+    }
+
+    @Override
+    public void decoded(String codec, long bytesIn, long bytesOut, long nanos) {
+        stats(codec).decoded(bytesIn, bytesOut, nanos);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.VladHendel.metrics;
+
+//Класс, хранящий реализацию CodingMetrics, в которую кодеки сообщают метрики.
+public final class Metrics {
+    // Текущая реализация метрик
+    private static volatile CodingMetrics current = CodingMetrics.NOOP;
+
+    private Metrics() {
+    }
+
+    //Метод для получения текущей реализации метрик.
+    public static CodingMetrics get() {
+        return current;
+    }
+
+    //Метод для установки реализации метрик (null - отключить сбор).
+    public static void set(CodingMetrics metrics) {
+        current = metrics == null ? CodingMetrics.NOOP : metrics;
+    }
+}
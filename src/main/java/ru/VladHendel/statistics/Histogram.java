@@ -0,0 +1,108 @@
+package ru.VladHendel.statistics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+//Класс для быстрого подсчета количеств байтов и оценки энтропии.
+//Подряд идущие одинаковые байты в простом цикле увеличивают один и тот же счетчик, и каждое увеличение ждет,
+//пока запишется предыдущее. Здесь байты раскладываются по четырем независимым таблицам счетчиков (по позиции байта),
+//которые в конце складываются, а данные читаются по 8 байтов за раз, поэтому проверок границ в 8 раз меньше.
+public final class Histogram {
+    // Размер алфавита байтов
+    public static final int ALPHABET_SIZE = 256;
+    // Количество независимых таблиц счетчиков
+    private static final int TABLES = 4;
+
+    private Histogram() {
+    }
+
+    //Метод для подсчета количеств length байтов массива data, начиная с offset.
+    public static int[] count(byte[] data, int offset, int length) {
+        int[] counts = new int[ALPHABET_SIZE];
+        count(ByteBuffer.wrap(data), offset, length, counts);
+        return counts;
+    }
+
+    //Метод для подсчета количеств length байтов буфера data, начиная с offset (по абсолютным позициям).
+    public static int[] count(ByteBuffer data, int offset, int length) {
+        int[] counts = new int[ALPHABET_SIZE];
+        count(data, offset, length, counts);
+        return counts;
+    }
+
+    //Метод для подсчета количеств length байтов буфера data, начиная с offset: количества добавляются к counts.
+    public static void count(ByteBuffer data, int offset, int length, int[] counts) {
+        // Порядок байтов в слове не важен, little-endian - родной для большинства процессоров
+        ByteBuffer in = data.order() == ByteOrder.LITTLE_ENDIAN ? data : data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int[] tables = new int[TABLES * ALPHABET_SIZE];
+        int end = offset + length;
+        int i = offset;
+        for (; i + 8 <= end; i += 8) {
+            long word = in.getLong(i);
+            tables[(int) word & 0xFF]++;
+            tables[ALPHABET_SIZE + ((int) (word >>> 8) & 0xFF)]++;
+            tables[2 * ALPHABET_SIZE + ((int) (word >>> 16) & 0xFF)]++;
+            tables[3 * ALPHABET_SIZE + ((int) (word >>> 24) & 0xFF)]++;
+            tables[(int) (word >>> 32) & 0xFF]++;
+            tables[ALPHABET_SIZE + ((int) (word >>> 40) & 0xFF)]++;
+            tables[2 * ALPHABET_SIZE + ((int) (word >>> 48) & 0xFF)]++;
+            tables[3 * ALPHABET_SIZE + (int) (word >>> 56)]++;
+        }
+        // Хвост короче слова
+        for (; i < end; i++) {
+            tables[in.get(i) & 0xFF]++;
+        }
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+            counts[symbol] += tables[symbol] + tables[ALPHABET_SIZE + symbol]
+                    + tables[2 * ALPHABET_SIZE + symbol] + tables[3 * ALPHABET_SIZE + symbol];
+        }
+    }
+
+    //Метод для проверки, что counts - количества байтов данных длины length (256 неотрицательных количеств с суммой length).
+    public static void check(int[] counts, int length) {
+        if (counts.length != ALPHABET_SIZE) {
+            throw new IllegalArgumentException("Количеств не " + ALPHABET_SIZE + ": " + counts.length);
+        }
+        long total = 0;
+        for (int count : counts) {
+            if (count < 0) {
+                throw new IllegalArgumentException("Отрицательное количество байта");
+            }
+            total += count;
+        }
+        if (total != length) {
+            throw new IllegalArgumentException("Сумма количеств " + total + " не равна длине данных " + length);
+        }
+    }
+
+    //Метод для оценки энтропии Шеннона в битах на байт по количествам байтов (0 для пустых данных).
+    public static double entropy(int[] counts) {
+        long total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total == 0 ? 0 : entropyBits(counts, total) / total;
+    }
+
+    //Метод для оценки размера в байтах, до которого энтропийный кодер со статической моделью сожмет данные
+    //с такими количествами байтов (без учета самой модели).
+    public static long entropySize(int[] counts) {
+        long total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return (long) Math.ceil(entropyBits(counts, total) / 8);
+    }
+
+    // Сумма -count * log2(count / total) по всем байтам
+    private static double entropyBits(int[] counts, long total) {
+        double bits = 0;
+        double log2Total = Math.log(total) / Math.log(2);
+        for (int count : counts) {
+            if (count > 0) {
+                bits += count * (log2Total - Math.log(count) / Math.log(2));
+            }
+        }
+        return bits;
+    }
+}
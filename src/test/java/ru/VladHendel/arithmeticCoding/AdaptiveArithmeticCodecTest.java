@@ -0,0 +1,74 @@
+package ru.VladHendel.arithmeticCoding;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//Проверки адаптивного арифметического кодека с контекстами порядка 0-2.
+class AdaptiveArithmeticCodecTest {
+    // Повторяющийся текст в UTF-8
+    private static byte[] text(int length) {
+        byte[] phrase = "Он подошел к Анне Павловне, поцеловал ее руку. Avant tout dites-moi, comment vous allez? "
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = phrase[i % phrase.length];
+        }
+        return data;
+    }
+
+    // Пустые данные, один символ, несжимаемые и неравномерные байты и текст
+    private static List<byte[]> inputs() {
+        List<byte[]> inputs = new ArrayList<>();
+        inputs.add(new byte[0]);
+        inputs.add(new byte[]{7});
+        inputs.add(new byte[1000]);
+        byte[] random = new byte[10007];
+        new Random(3).nextBytes(random);
+        inputs.add(random);
+        Random gaussian = new Random(4);
+        byte[] skewed = new byte[65537];
+        for (int i = 0; i < skewed.length; i++) {
+            skewed[i] = (byte) (int) (gaussian.nextGaussian() * 12);
+        }
+        inputs.add(skewed);
+        inputs.add(text(30001));
+        return inputs;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2})
+    void roundTrip(int order) {
+        AdaptiveArithmeticCodec codec = new AdaptiveArithmeticCodec(order);
+        for (byte[] data : inputs()) {
+            byte[] block = codec.encode(data, 0, data.length);
+            byte[] output = new byte[data.length];
+            assertEquals(data.length, codec.decode(block, 0, block.length, output, 0));
+            assertArrayEquals(data, output, "порядок " + order + ", длина " + data.length);
+        }
+    }
+
+    @Test
+    void contextsImproveText() {
+        byte[] data = text(100000);
+        int order0 = new AdaptiveArithmeticCodec(0).encode(data, 0, data.length).length;
+        int order2 = new AdaptiveArithmeticCodec(2).encode(data, 0, data.length).length;
+        assertTrue(order2 < order0 / 2, "порядок 0: " + order0 + ", порядок 2: " + order2);
+    }
+
+    @Test
+    void invalidOrderIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveArithmeticCodec(-1));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveArithmeticCodec(AdaptiveModel.MAX_ORDER + 1));
+    }
+}
@@ -0,0 +1,99 @@
+package ru.VladHendel.arithmeticCoding;
+
+import org.junit.jupiter.api.Test;
+import ru.VladHendel.blockCoding.BlockCodec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//Проверки кодеков rANS и tANS и нормализации модели под сумму частот 2^n.
+class AnsCodecTest {
+    // Пустые данные, один символ, все байты, несжимаемые и неравномерные данные; длины не кратны числу состояний
+    private static List<byte[]> inputs() {
+        List<byte[]> inputs = new ArrayList<>();
+        inputs.add(new byte[0]);
+        inputs.add(new byte[]{42});
+        byte[] same = new byte[1001];
+        Arrays.fill(same, (byte) 0xFF);
+        inputs.add(same);
+        byte[] all = new byte[256 * 3 + 1];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = (byte) i;
+        }
+        inputs.add(all);
+        Random random = new Random(31);
+        byte[] uniform = new byte[10007];
+        random.nextBytes(uniform);
+        inputs.add(uniform);
+        for (int length : new int[]{2, 3, 5, 4097, 65537}) {
+            byte[] skewed = new byte[length];
+            for (int i = 0; i < length; i++) {
+                skewed[i] = (byte) (int) (random.nextGaussian() * 12);
+            }
+            inputs.add(skewed);
+        }
+        return inputs;
+    }
+
+    // Количества байтов data
+    private static int[] counts(byte[] data) {
+        int[] counts = new int[FrequencyTable.ALPHABET_SIZE];
+        for (byte b : data) {
+            counts[b & 0xFF]++;
+        }
+        return counts;
+    }
+
+    private static void assertRoundTrip(BlockCodec codec) {
+        for (byte[] data : inputs()) {
+            byte[] block = codec.encode(data, 0, data.length);
+            assertTrue(block.length <= codec.maxEncodedLength(data.length), "размер блока больше наибольшего");
+            byte[] output = new byte[data.length];
+            assertEquals(data.length, codec.decode(block, 0, block.length, output, 0));
+            assertArrayEquals(data, output, "длина " + data.length);
+        }
+    }
+
+    @Test
+    void ransRoundTrip() {
+        assertRoundTrip(new RansBlockCodec());
+    }
+
+    @Test
+    void tansRoundTrip() {
+        assertRoundTrip(new TansBlockCodec());
+    }
+
+    @Test
+    void normalizedTableHasExactTotal() {
+        for (byte[] data : inputs()) {
+            int[] counts = counts(data);
+            for (int bits : new int[]{TansBlockCodec.TABLE_BITS, RansBlockCodec.SCALE_BITS}) {
+                FrequencyTable table = FrequencyTable.normalized(counts, bits);
+                assertEquals(data.length == 0 ? 0 : 1 << bits, table.total());
+                // Ни один встретившийся байт не теряет частоту, и ни один отсутствующий ее не получает
+                for (int symbol = 0; symbol < FrequencyTable.ALPHABET_SIZE; symbol++) {
+                    assertEquals(counts[symbol] > 0, table.frequency(symbol) > 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    void corruptBlockIsRejected() {
+        List<byte[]> inputs = inputs();
+        byte[] data = inputs.get(inputs.size() - 1);
+        byte[] block = new RansBlockCodec().encode(data, 0, data.length);
+        // Размер кода в заголовке больше оставшейся части блока
+        byte[] truncated = Arrays.copyOf(block, block.length / 2);
+        assertThrows(IllegalStateException.class,
+                () -> new RansBlockCodec().decode(truncated, 0, truncated.length, new byte[data.length], 0));
+    }
+}
@@ -0,0 +1,89 @@
+package ru.VladHendel.arithmeticCoding;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//Проверки потоков ArithmeticOutputStream и ArithmeticInputStream.
+class ArithmeticStreamTest {
+    // Размер блока потока в проверках: данные занимают несколько блоков
+    private static final int BLOCK_SIZE = 1000;
+
+    // Байты с неравномерным распределением
+    private static byte[] skewed(int length, long seed) {
+        Random random = new Random(seed);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (int) (random.nextGaussian() * 12);
+        }
+        return data;
+    }
+
+    // Сжатие data потоком: запись частями разной длины вперемешку с одиночными байтами
+    private static byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (OutputStream out = new ArithmeticOutputStream(encoded, BLOCK_SIZE)) {
+            int position = 0;
+            for (int part = 1; position < data.length; part = part * 3 + 1) {
+                int count = Math.min(part, data.length - position);
+                out.write(data, position, count);
+                position += count;
+                if (position < data.length) {
+                    out.write(data[position++]);
+                }
+            }
+        }
+        return encoded.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] encoded) throws IOException {
+        try (InputStream in = new ArithmeticInputStream(new ByteArrayInputStream(encoded))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        for (int length : new int[]{0, 1, BLOCK_SIZE - 1, BLOCK_SIZE, BLOCK_SIZE + 1, 10 * BLOCK_SIZE + 7}) {
+            byte[] data = skewed(length, length);
+            assertArrayEquals(data, decompress(compress(data)), "длина " + length);
+        }
+    }
+
+    @Test
+    void skewedDataIsCompressed() throws IOException {
+        // Четыре символа: около 2 бит на байт плюс таблица частот каждого блока
+        Random random = new Random(26);
+        byte[] data = new byte[50 * BLOCK_SIZE];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(4));
+        }
+        byte[] encoded = compress(data);
+        assertTrue(encoded.length < data.length / 2, "размер " + encoded.length);
+        assertArrayEquals(data, decompress(encoded));
+    }
+
+    @Test
+    void truncatedStreamIsRejected() throws IOException {
+        byte[] encoded = compress(skewed(5000, 27));
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 10);
+        assertThrows(IOException.class, () -> decompress(truncated));
+    }
+
+    @Test
+    void writeAfterCloseIsRejected() throws IOException {
+        OutputStream out = new ArithmeticOutputStream(new ByteArrayOutputStream());
+        out.close();
+        assertThrows(IOException.class, () -> out.write(1));
+    }
+}
@@ -0,0 +1,169 @@
+package ru.VladHendel.arithmeticCoding;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//Проверки целочисленного кодера диапазона и ArithmeticCoding на нем.
+class RangeCoderTest {
+    @Test
+    void randomIntervalsRoundTrip() {
+        // Случайные интервалы с разными суммами частот, включая частоты в одну единицу при наибольшей сумме
+        Random random = new Random(17);
+        int count = 100000;
+        int[] totals = new int[count];
+        int[] starts = new int[count];
+        int[] frequencies = new int[count];
+        RangeEncoder encoder = new RangeEncoder();
+        for (int i = 0; i < count; i++) {
+            totals[i] = 1 + random.nextInt(ArithmeticCoding.MAX_TOTAL);
+            starts[i] = random.nextInt(totals[i]);
+            frequencies[i] = random.nextInt(3) == 0 ? 1 : 1 + random.nextInt(totals[i] - starts[i]);
+            encoder.encode(starts[i], frequencies[i], totals[i]);
+        }
+        byte[] code = encoder.finish();
+        assertTrue(code.length <= RangeEncoder.maxCodeSize(count));
+        RangeDecoder decoder = new RangeDecoder(code);
+        for (int i = 0; i < count; i++) {
+            int value = decoder.getFreq(totals[i]);
+            assertTrue(value >= starts[i] && value < starts[i] + frequencies[i], "символ " + i);
+            decoder.decode(starts[i], frequencies[i]);
+        }
+    }
+
+    @Test
+    void carryPropagatesThroughPendingBytes() {
+        // Символ у верхнего края интервала раз за разом дает серии 0xFF, которые перенос должен превратить в нули
+        RangeEncoder encoder = new RangeEncoder();
+        for (int i = 0; i < 10000; i++) {
+            encoder.encode(i % 3 == 0 ? 0 : ArithmeticCoding.MAX_TOTAL - 1, 1, ArithmeticCoding.MAX_TOTAL);
+        }
+        RangeDecoder decoder = new RangeDecoder(encoder.finish());
+        for (int i = 0; i < 10000; i++) {
+            int start = i % 3 == 0 ? 0 : ArithmeticCoding.MAX_TOTAL - 1;
+            assertEquals(start, decoder.getFreq(ArithmeticCoding.MAX_TOTAL));
+            decoder.decode(start, 1);
+        }
+    }
+
+    @Test
+    void writesIntoTargetBuffer() {
+        // Кодер поверх чужого direct-буфера пишет те же байты, что и в свой массив, начиная с позиции буфера
+        RangeEncoder owned = new RangeEncoder();
+        for (int i = 0; i < 1000; i++) {
+            owned.encode(i % 7, 1, 8);
+        }
+        byte[] expected = owned.finish();
+        ByteBuffer target = ByteBuffer.allocateDirect(expected.length + 5);
+        target.position(5);
+        RangeEncoder encoder = new RangeEncoder(target);
+        for (int i = 0; i < 1000; i++) {
+            encoder.encode(i % 7, 1, 8);
+        }
+        encoder.flush();
+        assertEquals(expected.length, encoder.size());
+        assertEquals(5, target.position());
+        byte[] written = new byte[expected.length];
+        target.get(5, written);
+        assertArrayEquals(expected, written);
+    }
+
+    @Test
+    void textRoundTrip() {
+        String text = "Он подошел к Анне Павловне, поцеловал ее руку — Avant tout dites-moi, comment vous allez?";
+        ArithmeticCoding coding = new ArithmeticCoding(text);
+        assertEquals(text, coding.decode(coding.encode(text)));
+        assertEquals("", coding.decode(coding.encode("")));
+    }
+
+    @Test
+    void longSkewedRoundTrip() {
+        // Данных намного больше MAX_TOTAL, поэтому частоты модели масштабируются
+        Random random = new Random(18);
+        byte[] data = new byte[300000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (int) (random.nextGaussian() * 12);
+        }
+        ArithmeticCoding coding = new ArithmeticCoding(data);
+        byte[] encoded = coding.encode(data);
+        assertTrue(encoded.length < data.length * 3 / 4);
+        assertArrayEquals(data, coding.decodeBytes(encoded));
+    }
+
+    @Test
+    void singleSymbol() {
+        byte[] data = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa".getBytes(StandardCharsets.UTF_8);
+        ArithmeticCoding coding = new ArithmeticCoding(data);
+        assertArrayEquals(data, coding.decodeBytes(coding.encode(data)));
+    }
+
+    @Test
+    void allBytesRoundTrip() {
+        // Каждое из 256 значений байта, включая отрицательные byte и нулевой байт
+        byte[] data = new byte[256 * 40];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 7 + i / 256);
+        }
+        ArithmeticCoding coding = new ArithmeticCoding(data);
+        assertArrayEquals(data, coding.decodeBytes(coding.encode(data)));
+    }
+
+    @Test
+    void byteOutsideModelIsRejected() {
+        ArithmeticCoding coding = new ArithmeticCoding(new byte[]{1, 2});
+        assertThrows(IllegalArgumentException.class, () -> coding.encode(new byte[]{1, 3}));
+    }
+
+    @Test
+    void builderRoundTrip() {
+        byte[] data = "Он подошел к Анне Павловне — Avant tout dites-moi".getBytes(StandardCharsets.UTF_8);
+        ArithmeticCoding coding = ArithmeticCoding.builder().sample(data).sample("comment vous allez?").poolSize(0).build();
+        assertArrayEquals(data, coding.decodeBytes(coding.encode(data)));
+        int[] counts = new int[256];
+        Arrays.fill(counts, 3);
+        ArithmeticCoding all = ArithmeticCoding.builder().counts(counts).build();
+        assertArrayEquals(data, all.decodeBytes(all.encode(data)));
+        assertThrows(IllegalArgumentException.class, () -> ArithmeticCoding.builder().counts(new int[]{-1}));
+        assertThrows(IllegalArgumentException.class, () -> ArithmeticCoding.builder().poolSize(-1));
+    }
+
+    @Test
+    void sharedInstanceIsThreadSafe() throws InterruptedException, ExecutionException {
+        byte[] sample = new byte[4096];
+        new Random(19).nextBytes(sample);
+        ArithmeticCoding coding = new ArithmeticCoding(sample);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int task = 0; task < 64; task++) {
+                long seed = task;
+                results.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 50; i++) {
+                        byte[] data = Arrays.copyOfRange(sample, random.nextInt(100), 100 + random.nextInt(3000));
+                        assertArrayEquals(data, coding.decodeBytes(coding.encode(data)));
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
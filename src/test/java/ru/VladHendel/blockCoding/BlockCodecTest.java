@@ -0,0 +1,159 @@
+package ru.VladHendel.blockCoding;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import ru.VladHendel.statistics.Histogram;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//Проверки всех кодеков блоков: восстановление данных через массивы и через буферы, готовые количества и выбор кодека.
+class BlockCodecTest {
+    // Байты с неравномерным распределением
+    static byte[] skewed(int length, long seed) {
+        Random random = new Random(seed);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (int) (random.nextGaussian() * 12);
+        }
+        return data;
+    }
+
+    // Повторяющийся текст в UTF-8
+    static byte[] text(int length) {
+        byte[] phrase = "Он подошел к Анне Павловне, поцеловал ее руку. Avant tout dites-moi, comment vous allez? "
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = phrase[i % phrase.length];
+        }
+        return data;
+    }
+
+    // Пустые данные, один символ, несжимаемые, неравномерные и текст; длины не кратны 4 и 8, чтобы проверить хвосты
+    private static List<byte[]> inputs() {
+        List<byte[]> inputs = new ArrayList<>();
+        inputs.add(new byte[0]);
+        inputs.add(new byte[1]);
+        inputs.add(new byte[]{1, 2, 3});
+        byte[] same = new byte[1000];
+        Arrays.fill(same, (byte) 0x5A);
+        inputs.add(same);
+        byte[] random = new byte[10007];
+        new Random(1).nextBytes(random);
+        inputs.add(random);
+        for (int length : new int[]{2, 5, 7, 100, 4097, 65537}) {
+            inputs.add(skewed(length, length));
+        }
+        inputs.add(text(30001));
+        return inputs;
+    }
+
+    @ParameterizedTest
+    @EnumSource(CodecType.class)
+    void arrayRoundTrip(CodecType type) {
+        BlockCodec codec = type.codec();
+        for (byte[] data : inputs()) {
+            byte[] block = codec.encode(data, 0, data.length);
+            assertTrue(block.length <= codec.maxEncodedLength(data.length), "размер блока больше наибольшего");
+            // Декодируем со смещением, чтобы проверить outputOffset
+            byte[] output = new byte[data.length + 5];
+            assertEquals(data.length, codec.decode(block, 0, block.length, output, 5));
+            assertArrayEquals(data, Arrays.copyOfRange(output, 5, output.length), type + ", длина " + data.length);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(CodecType.class)
+    void bufferRoundTrip(CodecType type) {
+        BlockCodec codec = type.codec();
+        for (byte[] data : inputs()) {
+            byte[] expected = codec.encode(data, 0, data.length);
+            // Direct-буферы с ненулевыми позициями: кодек должен работать по позициям, а не с начала буфера
+            ByteBuffer source = ByteBuffer.allocateDirect(data.length + 3);
+            source.position(3);
+            source.put(data).position(3);
+            ByteBuffer target = ByteBuffer.allocateDirect(codec.maxEncodedLength(data.length) + 7);
+            target.position(7);
+            int size = codec.encode(source, target);
+            assertEquals(expected.length, size);
+            assertEquals(7 + size, target.position());
+            assertEquals(source.limit(), source.position());
+            target.flip().position(7);
+            ByteBuffer output = ByteBuffer.allocateDirect(data.length);
+            assertEquals(data.length, codec.decode(target, output));
+            output.flip();
+            assertEquals(ByteBuffer.wrap(data), output, type + ", длина " + data.length);
+        }
+    }
+
+    @Test
+    void shortTargetIsRejected() {
+        byte[] data = skewed(1000, 5);
+        byte[] block = CodecType.HUFFMAN.codec().encode(data, 0, data.length);
+        assertThrows(IllegalStateException.class,
+                () -> CodecType.HUFFMAN.codec().decode(block, 0, block.length, new byte[data.length - 1], 0));
+    }
+
+    @ParameterizedTest
+    @EnumSource(CodecType.class)
+    void encodeWithCountsMatchesEncode(CodecType type) {
+        BlockCodec codec = type.codec();
+        byte[] data = skewed(5000, 3);
+        int[] counts = Histogram.count(data, 0, data.length);
+        assertArrayEquals(codec.encode(data, 0, data.length), codec.encode(data, 0, data.length, counts));
+    }
+
+    @Test
+    void countsMustMatchData() {
+        byte[] data = skewed(100, 4);
+        int[] counts = Histogram.count(data, 0, data.length);
+        counts[0]++;
+        assertThrows(IllegalArgumentException.class, () -> CodecType.HUFFMAN.codec().encode(data, 0, data.length, counts));
+    }
+
+    @Test
+    void autoStoresRandomDataRaw() {
+        byte[] data = new byte[4096];
+        new Random(6).nextBytes(data);
+        assertEquals(CodecType.RAW, AutoBlockCodec.choose(Histogram.count(data, 0, data.length)));
+        byte[] block = CodecType.AUTO.codec().encode(data, 0, data.length);
+        assertEquals(CodecType.RAW.id(), block[0]);
+        assertEquals(data.length + 1, block.length);
+    }
+
+    @Test
+    void autoCompressesSkewedData() {
+        byte[] data = skewed(65536, 7);
+        assertNotEquals(CodecType.RAW, AutoBlockCodec.choose(Histogram.count(data, 0, data.length)));
+        assertTrue(CodecType.AUTO.codec().encode(data, 0, data.length).length < data.length * 3 / 4);
+    }
+
+    @Test
+    void autoRejectsUnknownInnerCodec() {
+        byte[] data = skewed(100, 8);
+        byte[] block = CodecType.AUTO.codec().encode(data, 0, data.length);
+        block[0] = (byte) CodecType.AUTO.id();
+        assertThrows(IllegalStateException.class, () -> CodecType.AUTO.codec().decode(block, 0, block.length, new byte[100], 0));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = CodecType.class, names = {"HUFFMAN", "HUFFMAN_4X", "ARITHMETIC", "RANS", "TANS", "RAW"})
+    void estimateIsClose(CodecType type) {
+        byte[] data = text(30001);
+        long estimate = type.codec().estimatedLength(Histogram.count(data, 0, data.length));
+        int actual = type.codec().encode(data, 0, data.length).length;
+        assertTrue(Math.abs(estimate - actual) <= actual / 100 + 8, type + ": оценка " + estimate + ", размер " + actual);
+    }
+}
@@ -0,0 +1,105 @@
+package ru.VladHendel.blockCoding;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+//Проверки контейнера блоков в памяти: параллельное сжатие и распаковка, поврежденный индекс.
+class BlockContainerTest {
+    // Размер блока, не кратный размерам данных, чтобы последний блок был неполным
+    private static final int BLOCK_SIZE = 4099;
+    // Смещение поля compressedOffset первой записи индекса
+    private static final int FIRST_ENTRY = BlockContainer.HEADER_SIZE;
+
+    // Байты с неравномерным распределением
+    private static byte[] skewed(int length, long seed) {
+        Random random = new Random(seed);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (int) (random.nextGaussian() * 12);
+        }
+        return data;
+    }
+
+    // Повторяющийся текст в UTF-8
+    private static byte[] text(int length) {
+        byte[] phrase = "Он подошел к Анне Павловне, поцеловал ее руку. Avant tout dites-moi, comment vous allez? "
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = phrase[i % phrase.length];
+        }
+        return data;
+    }
+
+    // Пустые данные, один символ, несжимаемые, неравномерные и текст; длины не кратны размеру блока
+    private static List<byte[]> inputs() {
+        List<byte[]> inputs = new ArrayList<>();
+        inputs.add(new byte[0]);
+        inputs.add(new byte[]{1, 2, 3});
+        inputs.add(new byte[1000]);
+        byte[] random = new byte[10007];
+        new Random(1).nextBytes(random);
+        inputs.add(random);
+        inputs.add(skewed(65537, 2));
+        inputs.add(text(30001));
+        return inputs;
+    }
+
+    @ParameterizedTest
+    @EnumSource(CodecType.class)
+    void roundTrip(CodecType codec) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        for (byte[] data : inputs()) {
+            byte[] container = BlockContainer.compress(data, codec, BLOCK_SIZE, pool);
+            assertArrayEquals(data, BlockContainer.decompress(container, pool), codec + ", длина " + data.length);
+        }
+    }
+
+    @Test
+    void defaultBlockSize() {
+        byte[] data = text(100000);
+        assertArrayEquals(data, BlockContainer.decompress(BlockContainer.compress(data, CodecType.HUFFMAN)));
+    }
+
+    @Test
+    void badMagicIsRejected() {
+        byte[] container = BlockContainer.compress(text(1000), CodecType.HUFFMAN);
+        container[0] ^= 1;
+        assertThrows(IllegalStateException.class, () -> BlockContainer.decompress(container));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {-1, Long.MIN_VALUE, Long.MAX_VALUE})
+    void badBlockOffsetIsRejected(long offset) {
+        // Отрицательное смещение указывает в индекс, а огромное переполняет сумму с началом данных
+        byte[] container = BlockContainer.compress(skewed(3 * BLOCK_SIZE, 8), CodecType.HUFFMAN, BLOCK_SIZE, ForkJoinPool.commonPool());
+        ByteBuffer.wrap(container).putLong(FIRST_ENTRY, offset);
+        assertThrows(IllegalStateException.class, () -> BlockContainer.decompress(container));
+    }
+
+    @Test
+    void blockLengthMismatchIsRejected() {
+        byte[] data = skewed(3 * BLOCK_SIZE, 9);
+        byte[] container = BlockContainer.compress(data, CodecType.RAW, BLOCK_SIZE, ForkJoinPool.commonPool());
+        // Длина первого блока в индексе на байт меньше, а второго - на байт больше: сумма сходится,
+        // но блок без сжатия длиннее своего места в выходных данных
+        ByteBuffer index = ByteBuffer.wrap(container);
+        int first = FIRST_ENTRY + 8 + 4;
+        int second = first + BlockContainer.INDEX_ENTRY_SIZE;
+        index.putInt(first, index.getInt(first) - 1);
+        index.putInt(second, index.getInt(second) + 1);
+        assertThrows(IllegalStateException.class, () -> BlockContainer.decompress(container));
+    }
+}
@@ -0,0 +1,132 @@
+package ru.VladHendel.blockCoding;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+//Проверки сжатия файлов через отображение в память и чтения диапазонов по индексу блоков.
+class BlockFileTest {
+    // Размер блока (простое число, чтобы границы блоков не совпадали с круглыми смещениями)
+    private static final int BLOCK_SIZE = 10007;
+
+    @TempDir
+    Path directory;
+
+    // Сжатие data в файл блоками BLOCK_SIZE; возвращает путь к сжатому файлу
+    private Path compress(byte[] data, CodecType codec) throws IOException {
+        Path input = directory.resolve("input");
+        Path compressed = directory.resolve("compressed");
+        Files.write(input, data);
+        BlockFile.compress(input, compressed, codec, BLOCK_SIZE, ForkJoinPool.commonPool());
+        return compressed;
+    }
+
+    @ParameterizedTest
+    @EnumSource(CodecType.class)
+    void fileRoundTrip(CodecType codec) throws IOException {
+        byte[] data = BlockCodecTest.text(5 * BLOCK_SIZE + 123);
+        Path compressed = compress(data, codec);
+        // Файл совместим с контейнером в памяти
+        assertArrayEquals(data, BlockContainer.decompress(Files.readAllBytes(compressed)));
+        Path output = directory.resolve("output");
+        BlockFile.decompress(compressed, output, ForkJoinPool.commonPool());
+        assertArrayEquals(data, Files.readAllBytes(output));
+    }
+
+    @Test
+    void emptyFile() throws IOException {
+        Path compressed = compress(new byte[0], CodecType.HUFFMAN);
+        Path output = directory.resolve("output");
+        BlockFile.decompress(compressed, output);
+        assertEquals(0, Files.size(output));
+        try (BlockFileReader reader = BlockFileReader.open(compressed)) {
+            assertEquals(0, reader.length());
+            assertArrayEquals(new byte[0], reader.read(0, 0));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = CodecType.class, names = {"HUFFMAN", "HUFFMAN_4X", "TANS", "ADAPTIVE_HUFFMAN", "AUTO"})
+    void rangesAtBlockBoundaries(CodecType codec) throws IOException {
+        byte[] data = BlockCodecTest.skewed(4 * BLOCK_SIZE + 17, 10);
+        try (BlockFileReader reader = BlockFileReader.open(compress(data, codec))) {
+            assertEquals(data.length, reader.length());
+            assertEquals(codec, reader.codec());
+            // Диапазоны вокруг каждой границы блока: до нее, через нее и после нее, а также целые блоки
+            for (int boundary = 0; boundary <= data.length; boundary += BLOCK_SIZE) {
+                for (int from : new int[]{boundary - 1, boundary, boundary + 1}) {
+                    for (int to : new int[]{from, from + 1, from + 2, boundary + BLOCK_SIZE, boundary + BLOCK_SIZE + 1}) {
+                        if (from >= 0 && from <= to && to <= data.length) {
+                            assertArrayEquals(Arrays.copyOfRange(data, from, to), reader.read(from, to), "[" + from + ", " + to + ")");
+                        }
+                    }
+                }
+            }
+            assertArrayEquals(data, reader.read(0, data.length));
+        }
+    }
+
+    @Test
+    void corruptBlockStaysInsideItsPlace() throws IOException {
+        byte[] data = BlockCodecTest.skewed(3 * BLOCK_SIZE, 13);
+        Path compressed = compress(data, CodecType.RAW);
+        // Длина первого блока в индексе на байт меньше, а второго - на байт больше: сумма сходится,
+        // но блок без сжатия длиннее своего места в выходных данных
+        ByteBuffer file = ByteBuffer.wrap(Files.readAllBytes(compressed));
+        int first = BlockContainer.HEADER_SIZE + 8 + 4;
+        int second = first + BlockContainer.INDEX_ENTRY_SIZE;
+        file.putInt(first, file.getInt(first) - 1);
+        file.putInt(second, file.getInt(second) + 1);
+        Files.write(compressed, file.array());
+        try (BlockFileReader reader = BlockFileReader.open(compressed)) {
+            ByteBuffer target = ByteBuffer.allocate(2 * BLOCK_SIZE);
+            Arrays.fill(target.array(), (byte) 0x77);
+            assertThrows(IllegalStateException.class, () -> reader.read(0, target));
+            // Место второго блока не затронуто
+            assertEquals(0x77, target.get(BLOCK_SIZE - 1));
+        }
+    }
+
+    @Test
+    void bufferReadStopsAtEnd() throws IOException {
+        byte[] data = BlockCodecTest.skewed(2 * BLOCK_SIZE + 1, 11);
+        try (BlockFileReader reader = BlockFileReader.open(compress(data, CodecType.RANS))) {
+            // Буфер длиннее остатка данных: читается только остаток
+            ByteBuffer target = ByteBuffer.allocateDirect(100);
+            target.position(10);
+            assertEquals(11, reader.read(data.length - 11, target));
+            assertEquals(21, target.position());
+            target.flip().position(10);
+            assertEquals(ByteBuffer.wrap(data, data.length - 11, 11), target);
+            assertEquals(0, reader.read(data.length, ByteBuffer.allocate(10)));
+            // Целые блоки с позиции буфера, отличной от нуля
+            ByteBuffer blocks = ByteBuffer.allocate(data.length + 5);
+            blocks.position(5);
+            assertEquals(data.length, reader.read(0, blocks));
+            assertEquals(blocks.capacity(), blocks.position());
+            assertEquals(ByteBuffer.wrap(data), blocks.flip().position(5));
+        }
+    }
+
+    @Test
+    void rangeOutsideDataIsRejected() throws IOException {
+        byte[] data = BlockCodecTest.skewed(100, 12);
+        try (BlockFileReader reader = BlockFileReader.open(compress(data, CodecType.HUFFMAN))) {
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.read(50, 101));
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.read(-1, 10));
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.read(20, 10));
+        }
+    }
+}
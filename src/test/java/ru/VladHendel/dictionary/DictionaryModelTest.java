@@ -0,0 +1,80 @@
+package ru.VladHendel.dictionary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import ru.VladHendel.blockCoding.CodecType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//Проверки словарных моделей: кодирование коротких сообщений, запись модели и кэш моделей.
+class DictionaryModelTest {
+    // Короткие сообщения, похожие друг на друга, как записи журнала
+    private static List<byte[]> samples() {
+        List<byte[]> samples = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            samples.add(("{\"user\":" + i * 7919 % 1000 + ",\"event\":\"login\",\"ok\":" + (i % 3 != 0) + "}")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        return samples;
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = CodecType.class, names = {"HUFFMAN", "ARITHMETIC"})
+    void roundTrip(CodecType codecType) {
+        MessageCodec codec = DictionaryModel.train("events", codecType, samples()).codec();
+        for (byte[] message : samples()) {
+            byte[] encoded = codec.encode(message);
+            assertTrue(encoded.length < message.length * 2 / 3, "размер " + encoded.length);
+            assertArrayEquals(message, codec.decode(encoded));
+        }
+        // Пустое сообщение и байты, которых не было в образцах
+        assertArrayEquals(new byte[0], codec.decode(codec.encode(new byte[0])));
+        byte[] unseen = {0, (byte) 0xFF, 1, (byte) 0x80};
+        assertArrayEquals(unseen, codec.decode(codec.encode(unseen)));
+    }
+
+    @Test
+    void modelWriteAndRead() throws IOException {
+        DictionaryModel model = DictionaryModel.train("events", CodecType.ARITHMETIC, samples());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        model.write(out);
+        DictionaryModel read = DictionaryModel.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals("events", read.id());
+        assertEquals(CodecType.ARITHMETIC, read.codecType());
+        byte[] message = samples().get(42);
+        assertArrayEquals(model.codec().encode(message), read.codec().encode(message));
+        byte[] corrupt = out.toByteArray();
+        corrupt[0] ^= 1;
+        assertThrows(IOException.class, () -> DictionaryModel.read(new ByteArrayInputStream(corrupt)));
+    }
+
+    @Test
+    void cacheEvictsLeastRecentlyUsed() {
+        List<String> loaded = new ArrayList<>();
+        DictionaryCache cache = new DictionaryCache(2, id -> {
+            loaded.add(id);
+            return DictionaryModel.train(id, CodecType.HUFFMAN, samples());
+        });
+        DictionaryModel a = cache.get("a");
+        cache.get("b");
+        assertSame(a, cache.get("a"));
+        // "b" дольше всего не использовалась и вытесняется моделью "c"
+        cache.get("c");
+        assertEquals(2, cache.size());
+        assertSame(a, cache.get("a"));
+        cache.get("b");
+        assertEquals(List.of("a", "b", "c", "b"), loaded);
+    }
+}
@@ -0,0 +1,65 @@
+package ru.VladHendel.huffmanCoding;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//Проверки адаптивного кода Хаффмана: однопроходный кодек и поток с общей моделью для всех блоков.
+class AdaptiveHuffmanTest {
+    // Данные, распределение которых меняется посередине: сначала частые малые байты, затем частые большие
+    private static byte[] shifting(int length, long seed) {
+        Random random = new Random(seed);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            int center = i < length / 2 ? 'a' : 200;
+            data[i] = (byte) (center + (int) (random.nextGaussian() * 4));
+        }
+        return data;
+    }
+
+    private static byte[] roundTrip(byte[] data) {
+        AdaptiveHuffmanCodec codec = new AdaptiveHuffmanCodec();
+        byte[] block = codec.encode(data, 0, data.length);
+        assertTrue(block.length <= codec.maxEncodedLength(data.length), "размер блока больше наибольшего");
+        byte[] output = new byte[data.length];
+        assertEquals(data.length, codec.decode(block, 0, block.length, output, 0));
+        assertArrayEquals(data, output, "длина " + data.length);
+        return block;
+    }
+
+    @Test
+    void codecRoundTrip() {
+        roundTrip(new byte[0]);
+        roundTrip(new byte[]{1});
+        byte[] same = new byte[5000];
+        Arrays.fill(same, (byte) 0x80);
+        roundTrip(same);
+        byte[] random = new byte[10007];
+        new Random(34).nextBytes(random);
+        roundTrip(random);
+        roundTrip(shifting(65537, 35));
+    }
+
+    @Test
+    void followsChangingDistribution() {
+        // Каждая половина занимает около 4 бит на байт; общий код для обеих потратил бы на байт около бита больше
+        byte[] data = shifting(200000, 36);
+        byte[] block = roundTrip(data);
+        byte[] fixed = new HuffmanBlockCodec().encode(data, 0, data.length);
+        assertTrue(block.length < fixed.length, "адаптивный " + block.length + ", статический " + fixed.length);
+    }
+
+    @Test
+    void streamRoundTrip() throws IOException {
+        for (int length : new int[]{0, 1, 999, 1000, 1001, 50007}) {
+            byte[] data = shifting(length, length);
+            assertArrayEquals(data, HuffmanStreamTest.decompress(HuffmanStreamTest.compress(data, true), true), "длина " + length);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package ru.VladHendel.huffmanCoding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//Проверки побитной упаковки кодов и декодирования через таблицы.
+class BitPackingTest {
+    @Test
+    void bitsRoundTrip() {
+        Random random = new Random(21);
+        int count = 50000;
+        int[] lengths = new int[count];
+        int[] values = new int[count];
+        BitWriter writer = new BitWriter();
+        long bits = 0;
+        for (int i = 0; i < count; i++) {
+            lengths[i] = 1 + random.nextInt(32);
+            values[i] = random.nextInt() >>> (32 - lengths[i]);
+            writer.writeBits(values[i], lengths[i]);
+            bits += lengths[i];
+        }
+        writer.flush();
+        // Выравнивается только последний байт
+        assertEquals((bits + 7) / 8, writer.size());
+        BitReader reader = new BitReader(writer.toByteArray(), 0);
+        for (int i = 0; i < count; i++) {
+            assertEquals(values[i], reader.readBits(lengths[i]), "значение " + i);
+        }
+    }
+
+    @Test
+    void peekAndSkip() {
+        BitWriter writer = new BitWriter();
+        writer.writeBits(0b1011, 4);
+        writer.writeBits(0xABCD, 16);
+        writer.flush();
+        BitReader reader = new BitReader(writer.toByteArray(), 0);
+        assertEquals(0b10, reader.peekBits(2));
+        reader.skipBits(4);
+        assertEquals(0xABCD, reader.readBits(16));
+    }
+
+    @Test
+    void decodeTableWithLongCodes() {
+        // Коды длиной до 16 бит не помещаются в корневую таблицу и декодируются через подтаблицы
+        int[] lengths = new int[17];
+        for (int symbol = 0; symbol < 15; symbol++) {
+            lengths[symbol] = symbol + 1;
+        }
+        lengths[15] = 16;
+        lengths[16] = 16;
+        CanonicalCode code = new CanonicalCode(lengths);
+        Random random = new Random(22);
+        int[] symbols = new int[10000];
+        BitWriter writer = new BitWriter();
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = random.nextInt(lengths.length);
+            code.encodeSymbol(writer, symbols[i]);
+        }
+        writer.flush();
+        BitReader reader = new BitReader(writer.toByteArray(), 0);
+        int[] decoded = new int[symbols.length];
+        for (int i = 0; i < symbols.length; i++) {
+            decoded[i] = code.decodeSymbol(reader);
+        }
+        assertArrayEquals(symbols, decoded);
+    }
+
+    @Test
+    void outputIsPacked() {
+        // Два символа - по одному биту на байт данных
+        byte[] data = new byte[8000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i % 3 == 0 ? 'a' : 'b');
+        }
+        HuffmanCoding coding = new HuffmanCoding(data);
+        byte[] encoded = coding.encode(data);
+        assertTrue(encoded.length <= data.length / 8 + 64, "размер " + encoded.length);
+        assertArrayEquals(data, HuffmanCoding.decodeBytes(encoded));
+    }
+}
@@ -0,0 +1,189 @@
+package ru.VladHendel.huffmanCoding;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//Проверки канонического кода Хаффмана: назначение кодов, заголовок и длины кодов.
+class CanonicalCodeTest {
+    // Количество символов с частотами Фибоначчи: без ограничения длины самый редкий получил бы код из 19 бит
+    private static final int FIBONACCI_SYMBOLS = 20;
+
+    // Сумма 2^(MAX_CODE_LENGTH - длина) по всем кодам: не больше 2^MAX_CODE_LENGTH для префиксного кода
+    private static long kraft(int[] lengths) {
+        long sum = 0;
+        for (int length : lengths) {
+            if (length > 0) {
+                sum += 1L << (CanonicalCode.MAX_CODE_LENGTH - length);
+            }
+        }
+        return sum;
+    }
+
+    // Взвешенная длина кода
+    private static long cost(int[] lengths, int[] frequencies) {
+        long bits = 0;
+        for (int symbol = 0; symbol < frequencies.length; symbol++) {
+            bits += (long) frequencies[symbol] * lengths[symbol];
+        }
+        return bits;
+    }
+
+    // Данные, в которых байт i встречается F(i + 1) раз, вперемешку: дерево Хаффмана на таких частотах вырождается в цепочку
+    private static byte[] fibonacci(long seed) {
+        int[] counts = new int[FIBONACCI_SYMBOLS];
+        counts[0] = 1;
+        counts[1] = 1;
+        for (int i = 2; i < FIBONACCI_SYMBOLS; i++) {
+            counts[i] = counts[i - 1] + counts[i - 2];
+        }
+        byte[] data = new byte[Arrays.stream(counts).sum()];
+        int position = 0;
+        for (int symbol = 0; symbol < FIBONACCI_SYMBOLS; symbol++) {
+            for (int i = 0; i < counts[symbol]; i++) {
+                data[position++] = (byte) symbol;
+            }
+        }
+        Random random = new Random(seed);
+        for (int i = data.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte swap = data[i];
+            data[i] = data[j];
+            data[j] = swap;
+        }
+        return data;
+    }
+
+    // Частоты байтов data
+    private static int[] frequencies(byte[] data) {
+        int[] frequencies = new int[256];
+        for (byte b : data) {
+            frequencies[b & 0xFF]++;
+        }
+        return frequencies;
+    }
+
+    @Test
+    void codesAreCanonical() {
+        // Символы одной длины получают подряд идущие коды, более короткие коды идут раньше
+        CanonicalCode code = new CanonicalCode(new int[]{2, 1, 3, 3});
+        assertArrayEquals(new int[]{0b10, 0b0, 0b110, 0b111}, code.codes);
+    }
+
+    @Test
+    void invalidLengthsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new CanonicalCode(new int[]{1, 1, 1}));
+        assertThrows(IllegalArgumentException.class, () -> new CanonicalCode(new int[]{CanonicalCode.MAX_CODE_LENGTH + 1}));
+    }
+
+    @Test
+    void headerRoundTrip() {
+        // Разрывы между символами - и нулевые, и длинные
+        int[] frequencies = new int[256];
+        frequencies[3] = 100;
+        frequencies[4] = 50;
+        frequencies[5] = 1;
+        frequencies[200] = 7;
+        frequencies[255] = 30;
+        CanonicalCode code = CanonicalCode.fromFrequencies(frequencies);
+        BitWriter writer = new BitWriter();
+        code.writeHeader(writer);
+        writer.flush();
+        CanonicalCode read = CanonicalCode.readHeader(new BitReader(writer.toByteArray(), 0));
+        for (int symbol = 0; symbol < frequencies.length; symbol++) {
+            assertEquals(code.lengths[symbol], symbol < read.lengths.length ? read.lengths[symbol] : 0);
+        }
+    }
+
+    @Test
+    void headerIsCompact() {
+        // Для подряд идущих символов заголовок занимает по 5 бит на символ
+        int[] frequencies = new int[256];
+        for (int symbol = 'a'; symbol <= 'z'; symbol++) {
+            frequencies[symbol] = symbol;
+        }
+        BitWriter writer = new BitWriter();
+        CanonicalCode.fromFrequencies(frequencies).writeHeader(writer);
+        writer.flush();
+        assertTrue(writer.size() <= (17 + 16 + 26 * 5 + 7) / 8, "размер заголовка " + writer.size());
+    }
+
+    @Test
+    void corruptHeaderIsRejected() {
+        // Заголовок из трех символов с кодами длины 1 нарушает неравенство Крафта
+        BitWriter writer = new BitWriter();
+        writer.writeBits(3, 17);
+        for (int i = 0; i < 3; i++) {
+            writer.writeBits(0, 1);
+            writer.writeBits(0, 4);
+        }
+        writer.flush();
+        assertThrows(IllegalStateException.class, () -> CanonicalCode.readHeader(new BitReader(writer.toByteArray(), 0)));
+    }
+
+    @Test
+    void decodesWithoutTheEncoderModel() {
+        byte[] data = "канонический код восстанавливается по длинам кодов из заголовка".getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(data, HuffmanCoding.decodeBytes(new HuffmanCoding(data).encode(data)));
+    }
+
+    @Test
+    void emptyAndSingleSymbol() {
+        assertArrayEquals(new int[4], CanonicalCode.codeLengths(new int[4]));
+        assertArrayEquals(new int[]{0, 0, 1, 0}, CanonicalCode.codeLengths(new int[]{0, 0, 7, 0}));
+    }
+
+    @Test
+    void fibonacciFrequenciesHitTheLengthLimit() {
+        byte[] data = fibonacci(1);
+        int[] frequencies = frequencies(data);
+        int[] lengths = CanonicalCode.codeLengths(frequencies);
+        assertEquals(CanonicalCode.MAX_CODE_LENGTH, Arrays.stream(lengths).max().getAsInt());
+        assertTrue(kraft(lengths) <= 1L << CanonicalCode.MAX_CODE_LENGTH);
+        // Ограниченные длины совпадают по стоимости с оптимальными кодами ограниченной длины (package-merge)
+        assertEquals(cost(CanonicalCode.limitLengths(frequencies, CanonicalCode.MAX_CODE_LENGTH), frequencies), cost(lengths, frequencies));
+        byte[] block = new HuffmanBlockCodec().encode(data, 0, data.length);
+        byte[] output = new byte[data.length];
+        new HuffmanBlockCodec().decode(block, 0, block.length, output, 0);
+        assertArrayEquals(data, output);
+    }
+
+    @Test
+    void lengthsAreOptimalPrefixCodes() {
+        Random random = new Random(13);
+        for (int round = 0; round < 200; round++) {
+            int[] frequencies = new int[2 + random.nextInt(300)];
+            for (int symbol = 0; symbol < frequencies.length; symbol++) {
+                frequencies[symbol] = random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(1 << random.nextInt(20));
+            }
+            int[] lengths = CanonicalCode.codeLengths(frequencies);
+            assertTrue(kraft(lengths) <= 1L << CanonicalCode.MAX_CODE_LENGTH);
+            for (int symbol = 0; symbol < frequencies.length; symbol++) {
+                assertEquals(frequencies[symbol] > 0, lengths[symbol] > 0);
+            }
+            // Код с наибольшей длиной 16 не может быть дешевле оптимального кода с той же границей
+            assertTrue(cost(lengths, frequencies) <= cost(CanonicalCode.limitLengths(frequencies, CanonicalCode.MAX_CODE_LENGTH), frequencies));
+        }
+    }
+
+    @Test
+    void encodedLengthIsExact() {
+        Random random = new Random(14);
+        for (int length : new int[]{0, 1, 2, 7, 100, 4097, 65537}) {
+            byte[] data = new byte[length];
+            for (int i = 0; i < length; i++) {
+                data[i] = (byte) (int) (random.nextGaussian() * 12);
+            }
+            assertEquals(new HuffmanBlockCodec().encode(data, 0, data.length).length, HuffmanBlock.encodedLength(frequencies(data)));
+        }
+        byte[] data = fibonacci(2);
+        assertEquals(new HuffmanBlockCodec().encode(data, 0, data.length).length, HuffmanBlock.encodedLength(frequencies(data)));
+    }
+}
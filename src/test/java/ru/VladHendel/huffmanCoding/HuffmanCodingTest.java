@@ -0,0 +1,111 @@
+package ru.VladHendel.huffmanCoding;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+//Проверки HuffmanCoding: произвольные байты, построитель и общий экземпляр в нескольких потоках.
+class HuffmanCodingTest {
+    @Test
+    void allBytesRoundTrip() {
+        // Каждое из 256 значений байта, включая отрицательные byte и нулевой байт
+        byte[] data = new byte[256 * 40];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 7 + i / 256);
+        }
+        HuffmanCoding coding = new HuffmanCoding(data);
+        assertArrayEquals(data, HuffmanCoding.decodeBytes(coding.encode(data)));
+        byte[] random = new byte[10007];
+        new Random(12).nextBytes(random);
+        assertArrayEquals(random, HuffmanCoding.decodeBytes(new HuffmanCoding(random).encode(random)));
+    }
+
+    @Test
+    void emptyAndSingleSymbol() {
+        HuffmanCoding coding = new HuffmanCoding(new byte[]{0});
+        assertArrayEquals(new byte[0], HuffmanCoding.decodeBytes(coding.encode(new byte[0])));
+        byte[] same = new byte[1000];
+        Arrays.fill(same, (byte) 0xFF);
+        assertArrayEquals(same, HuffmanCoding.decodeBytes(new HuffmanCoding(same).encode(same)));
+    }
+
+    @Test
+    void byteOutsideModelIsRejected() {
+        HuffmanCoding coding = new HuffmanCoding(new byte[]{1, 2});
+        assertThrows(IllegalArgumentException.class, () -> coding.encode(new byte[]{1, 3}));
+    }
+
+    @Test
+    void builderRoundTrip() {
+        byte[] data = "Он подошел к Анне Павловне — Avant tout dites-moi".getBytes(StandardCharsets.UTF_8);
+        // Модель по двум образцам: байты первого кодируются кодом, построенным по обоим
+        HuffmanCoding coding = HuffmanCoding.builder().sample(data).sample("comment vous allez?").poolSize(0).build();
+        byte[] encoded = coding.encode(data);
+        assertArrayEquals(data, HuffmanCoding.decodeBytes(encoded));
+        assertArrayEquals(data, coding.decodeBytesWithModel(encoded));
+        String text = new String(data, StandardCharsets.UTF_8);
+        assertEquals(text, coding.decodeWithModel(coding.encode(text)));
+    }
+
+    @Test
+    void otherModelDecodesByHeader() {
+        // Код в заголовке блока важнее модели экземпляра, которым декодируют
+        byte[] data = "abracadabra".getBytes(StandardCharsets.UTF_8);
+        HuffmanCoding coding = HuffmanCoding.builder().sample(data).build();
+        HuffmanCoding other = HuffmanCoding.builder().sample("совсем другой текст").sample(data).build();
+        assertArrayEquals(data, other.decodeBytesWithModel(coding.encode(data)));
+    }
+
+    @Test
+    void frequenciesBuilder() {
+        int[] frequencies = new int[256];
+        for (int symbol = 0; symbol < frequencies.length; symbol++) {
+            frequencies[symbol] = symbol + 1;
+        }
+        HuffmanCoding coding = HuffmanCoding.builder().frequencies(frequencies).build();
+        byte[] data = new byte[1000];
+        new Random(14).nextBytes(data);
+        assertArrayEquals(data, coding.decodeBytesWithModel(coding.encode(data)));
+        assertThrows(IllegalArgumentException.class, () -> HuffmanCoding.builder().frequencies(new int[]{-1}));
+        assertThrows(IllegalArgumentException.class, () -> HuffmanCoding.builder().frequencies(new int[257]));
+        assertThrows(IllegalArgumentException.class, () -> HuffmanCoding.builder().poolSize(-1));
+    }
+
+    @Test
+    void sharedInstanceIsThreadSafe() throws InterruptedException, ExecutionException {
+        byte[] sample = new byte[4096];
+        new Random(15).nextBytes(sample);
+        HuffmanCoding coding = new HuffmanCoding(sample);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int task = 0; task < 64; task++) {
+                long seed = task;
+                results.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 50; i++) {
+                        byte[] data = Arrays.copyOfRange(sample, random.nextInt(100), 100 + random.nextInt(3000));
+                        assertArrayEquals(data, coding.decodeBytesWithModel(coding.encode(data)));
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.VladHendel.huffmanCoding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+//Проверки кодека коротких сообщений кодом Хаффмана: длина сообщения в начале кода.
+class HuffmanDictionaryCodecTest {
+    // Чтение длины из байтов header
+    private static int readLength(int... header) {
+        byte[] bytes = new byte[header.length];
+        for (int i = 0; i < header.length; i++) {
+            bytes[i] = (byte) header[i];
+        }
+        return HuffmanDictionaryCodec.readLength(new BitReader(bytes, 0));
+    }
+
+    @Test
+    void lengthBoundaries() {
+        assertEquals(0x7F, readLength(0x7F));
+        assertEquals(0x80, readLength(0x80, 0x01));
+        assertEquals((1 << 28) - 1, readLength(0xFF, 0xFF, 0xFF, 0x7F));
+        // 2^28 - наименьшая длина, которой нужен пятый байт
+        assertEquals(1 << 28, readLength(0x80, 0x80, 0x80, 0x80, 0x01));
+        assertEquals(1 << 30, readLength(0x80, 0x80, 0x80, 0x80, 0x04));
+    }
+
+    @Test
+    void badLengthIsRejected() {
+        // Больше допустимой длины, переполнение int в пятом байте и шестой байт
+        assertThrows(IllegalStateException.class, () -> readLength(0x81, 0x80, 0x80, 0x80, 0x04));
+        assertThrows(IllegalStateException.class, () -> readLength(0x80, 0x80, 0x80, 0x80, 0x7F));
+        assertThrows(IllegalStateException.class, () -> readLength(0x80, 0x80, 0x80, 0x80, 0x80, 0x01));
+    }
+
+    @Test
+    void multiByteLengthRoundTrip() {
+        int[] frequencies = new int[256];
+        for (int symbol = 0; symbol < frequencies.length; symbol++) {
+            frequencies[symbol] = 1 + symbol % 17;
+        }
+        HuffmanDictionaryCodec codec = new HuffmanDictionaryCodec(frequencies);
+        Random random = new Random(13);
+        for (int length : new int[]{0, 1, 0x7F, 0x80, 0x3FFF, 0x4000, 0x20001}) {
+            byte[] message = new byte[length];
+            random.nextBytes(message);
+            assertArrayEquals(message, codec.decode(codec.encode(message)), "длина " + length);
+        }
+    }
+}
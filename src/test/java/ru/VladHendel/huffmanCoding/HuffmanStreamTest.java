@@ -0,0 +1,98 @@
+package ru.VladHendel.huffmanCoding;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+//Проверки потоков HuffmanOutputStream и HuffmanInputStream.
+class HuffmanStreamTest {
+    // Размер блока потока в проверках: данные занимают несколько блоков
+    private static final int BLOCK_SIZE = 1000;
+
+    // Байты с неравномерным распределением
+    private static byte[] skewed(int length, long seed) {
+        Random random = new Random(seed);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (int) (random.nextGaussian() * 12);
+        }
+        return data;
+    }
+
+    // Сжатие data потоком: запись частями разной длины вперемешку с одиночными байтами
+    static byte[] compress(byte[] data, boolean adaptive) throws IOException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (OutputStream out = new HuffmanOutputStream(encoded, BLOCK_SIZE, adaptive)) {
+            int position = 0;
+            for (int part = 1; position < data.length; part = part * 3 + 1) {
+                int count = Math.min(part, data.length - position);
+                out.write(data, position, count);
+                position += count;
+                if (position < data.length) {
+                    out.write(data[position++]);
+                }
+            }
+        }
+        return encoded.toByteArray();
+    }
+
+    // Распаковка потока, сжатого compress
+    static byte[] decompress(byte[] encoded, boolean adaptive) throws IOException {
+        try (InputStream in = new HuffmanInputStream(new ByteArrayInputStream(encoded), adaptive)) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        for (int length : new int[]{0, 1, BLOCK_SIZE - 1, BLOCK_SIZE, BLOCK_SIZE + 1, 10 * BLOCK_SIZE + 7}) {
+            byte[] data = skewed(length, length);
+            assertArrayEquals(data, decompress(compress(data, false), false), "длина " + length);
+        }
+    }
+
+    @Test
+    void singleSymbolAndRandomBlocks() throws IOException {
+        byte[] same = new byte[3 * BLOCK_SIZE];
+        Arrays.fill(same, (byte) 'x');
+        assertArrayEquals(same, decompress(compress(same, false), false));
+        byte[] random = new byte[3 * BLOCK_SIZE + 5];
+        new Random(23).nextBytes(random);
+        assertArrayEquals(random, decompress(compress(random, false), false));
+    }
+
+    @Test
+    void readsByteByByte() throws IOException {
+        byte[] data = skewed(2500, 24);
+        try (InputStream in = new HuffmanInputStream(new ByteArrayInputStream(compress(data, false)))) {
+            for (byte b : data) {
+                assertEquals(b & 0xFF, in.read());
+            }
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    void truncatedStreamIsRejected() throws IOException {
+        byte[] encoded = compress(skewed(5000, 25), false);
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 10);
+        assertThrows(IOException.class, () -> decompress(truncated, false));
+    }
+
+    @Test
+    void writeAfterCloseIsRejected() throws IOException {
+        OutputStream out = new HuffmanOutputStream(new ByteArrayOutputStream());
+        out.close();
+        assertThrows(IOException.class, () -> out.write(1));
+    }
+}
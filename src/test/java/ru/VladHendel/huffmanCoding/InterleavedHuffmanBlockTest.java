@@ -0,0 +1,69 @@
+package ru.VladHendel.huffmanCoding;
+
+import org.junit.jupiter.api.Test;
+import ru.VladHendel.blockCoding.CodecType;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+//Проверки блока Хаффмана из четырех чередующихся потоков.
+class InterleavedHuffmanBlockTest {
+    // Байты с неравномерным распределением
+    private static byte[] skewed(int length, long seed) {
+        Random random = new Random(seed);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (int) (random.nextGaussian() * 12);
+        }
+        return data;
+    }
+
+    private static byte[] encode(byte[] data) {
+        BitWriter writer = new BitWriter();
+        InterleavedHuffmanBlock.encode(ByteBuffer.wrap(data), 0, data.length, writer);
+        return writer.toByteArray();
+    }
+
+    @Test
+    void decodesEveryTail() {
+        // Длины от 0 до 9 байтов проверяют все случаи пустых и коротких потоков
+        for (int length = 0; length < 10; length++) {
+            byte[] data = skewed(length, length);
+            byte[] block = encode(data);
+            byte[] output = new byte[length];
+            assertEquals(length, InterleavedHuffmanBlock.decode(ByteBuffer.wrap(block), 0, block.length, ByteBuffer.wrap(output), 0));
+            assertArrayEquals(data, output, "длина " + length);
+        }
+    }
+
+    @Test
+    void matchesSingleStreamBlock() {
+        // Четыре потока длиннее одного только на таблицу переходов и выравнивание потоков до байта
+        for (int length : new int[]{4093, 4096, 65537}) {
+            byte[] data = skewed(length, 32);
+            byte[] interleaved = CodecType.HUFFMAN_4X.codec().encode(data, 0, data.length);
+            byte[] single = CodecType.HUFFMAN.codec().encode(data, 0, data.length);
+            assertEquals(single.length, interleaved.length, 4 * InterleavedHuffmanBlock.STREAMS + 1);
+            byte[] output = new byte[length];
+            CodecType.HUFFMAN_4X.codec().decode(interleaved, 0, interleaved.length, output, 0);
+            assertArrayEquals(data, output);
+        }
+    }
+
+    @Test
+    void corruptJumpTableIsRejected() {
+        byte[] data = skewed(10000, 33);
+        byte[] block = encode(data);
+        // Таблица переходов идет сразу за заголовком с длинами кодов
+        BitReader header = new BitReader(block, 0);
+        header.readBits(32);
+        CanonicalCode.readHeader(header);
+        ByteBuffer.wrap(block).putInt(header.position(), block.length);
+        assertThrows(IllegalStateException.class,
+                () -> InterleavedHuffmanBlock.decode(ByteBuffer.wrap(block), 0, block.length, ByteBuffer.wrap(new byte[data.length]), 0));
+    }
+}
@@ -0,0 +1,77 @@
+package ru.VladHendel.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+//Проверки подсчета количеств байтов и оценки энтропии.
+class HistogramTest {
+    // Подсчет простым циклом
+    private static int[] naive(byte[] data, int offset, int length) {
+        int[] counts = new int[Histogram.ALPHABET_SIZE];
+        for (int i = offset; i < offset + length; i++) {
+            counts[data[i] & 0xFF]++;
+        }
+        return counts;
+    }
+
+    // Байты с неравномерным распределением
+    private static byte[] skewed(int length, long seed) {
+        Random random = new Random(seed);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (int) (random.nextGaussian() * 12);
+        }
+        return data;
+    }
+
+    @Test
+    void countsMatchSimpleLoop() {
+        byte[] random = new byte[10007];
+        new Random(38).nextBytes(random);
+        for (byte[] data : new byte[][]{new byte[0], {5}, new byte[17], random, skewed(4097, 39), skewed(65537, 40)}) {
+            // Смещения и длины, не кратные 8, проверяют начало и хвост вне 8-байтовых слов
+            for (int offset = 0; offset < Math.min(9, data.length); offset++) {
+                int length = data.length - offset - offset / 2;
+                assertArrayEquals(naive(data, offset, length), Histogram.count(data, offset, length));
+                ByteBuffer direct = ByteBuffer.allocateDirect(data.length).put(data);
+                assertArrayEquals(naive(data, offset, length), Histogram.count(direct, offset, length));
+            }
+        }
+    }
+
+    @Test
+    void countsAccumulate() {
+        byte[] data = skewed(1000, 18);
+        int[] counts = Histogram.count(data, 0, 500);
+        Histogram.count(ByteBuffer.wrap(data), 500, 500, counts);
+        assertArrayEquals(naive(data, 0, data.length), counts);
+    }
+
+    @Test
+    void entropy() {
+        assertEquals(0, Histogram.entropy(new int[Histogram.ALPHABET_SIZE]));
+        int[] single = new int[Histogram.ALPHABET_SIZE];
+        single[7] = 100;
+        assertEquals(0, Histogram.entropy(single));
+        int[] uniform = new int[Histogram.ALPHABET_SIZE];
+        Arrays.fill(uniform, 10);
+        assertEquals(8, Histogram.entropy(uniform), 1e-9);
+        assertEquals(Histogram.ALPHABET_SIZE * 10, Histogram.entropySize(uniform));
+    }
+
+    @Test
+    void checkRejectsMismatchedCounts() {
+        int[] counts = new int[Histogram.ALPHABET_SIZE];
+        counts[1] = 5;
+        Histogram.check(counts, 5);
+        assertThrows(IllegalArgumentException.class, () -> Histogram.check(counts, 6));
+        assertThrows(IllegalArgumentException.class, () -> Histogram.check(new int[10], 0));
+    }
+}